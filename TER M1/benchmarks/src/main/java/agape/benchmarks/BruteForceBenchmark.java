@@ -0,0 +1,84 @@
+/*
+ * Copyright University of Orleans - ENSI de Bourges
+ * This software is governed by the CeCILL  license under French law and
+ * abiding by the rules of distribution of free software.  You can  use,
+ * modify and/ or redistribute the software under the terms of the CeCILL
+ * license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info".
+ */
+package agape.benchmarks;
+
+import agape.algos.MIS;
+import agape.algos.MVC;
+import edu.uci.ics.jung.graph.Graph;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Exhaustive searches (MVC and MIS brute force), on graphs small enough for
+ * them. The vertex cover is searched with k = opt + kOffset.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BruteForceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Instance {
+        @Param({"10", "12"})
+        public int n;
+        @Param({"0.2", "0.4"})
+        public double density;
+
+        Graph<Integer,Integer> graph;
+        MIS<Integer,Integer> mis;
+
+        @Setup
+        public void setup() {
+            graph = Graphs.erdosRenyi(n, density, Graphs.SEED);
+            mis = new MIS<Integer,Integer>(Graphs.undirectedFactory(), Graphs.idFactory(), Graphs.idFactory());
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Cover {
+        @Param({"0", "-1"})
+        public int kOffset;
+        //CompactGraph or copy of the JUNG graph
+        @Param({"true", "false"})
+        public boolean compact;
+
+        MVC<Integer,Integer> mvc;
+        int k;
+
+        @Setup
+        public void setup(Instance instance) {
+            mvc = new MVC<Integer,Integer>(Graphs.undirectedFactory());
+            k = mvc.minimumVertexCover(instance.graph).size() + kOffset;
+            mvc.setUseCompactGraph(compact);
+        }
+    }
+
+    @Benchmark
+    public boolean vertexCoverBruteForce(Instance s, Cover c) {
+        return c.mvc.kVertexCoverBruteForce(s.graph, c.k);
+    }
+
+    @Benchmark
+    public Set<Integer> independentSetBruteForce(Instance s) {
+        return s.mis.maximumIndependentSetBruteForce(s.graph);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright University of Orleans - ENSI de Bourges
+ * This software is governed by the CeCILL  license under French law and
+ * abiding by the rules of distribution of free software.  You can  use,
+ * modify and/ or redistribute the software under the terms of the CeCILL
+ * license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info".
+ */
+package agape.benchmarks;
+
+import agape.algos.Coloring;
+import agape.tools.CompactGraph;
+import edu.uci.ics.jung.graph.Graph;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Coloring algorithms and chromatic number algorithms of Coloring. The exact
+ * algorithms are exponential in n and run on small G(n,p) graphs, with and
+ * without the bitmask representation (compact); the heuristics run on large
+ * sparse CompactGraphs (the Graph overloads first build one).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ColoringBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Small {
+        @Param({"6", "9"})
+        public int n;
+        @Param({"0.3", "0.5"})
+        public double density;
+        //bitmask engine or JUNG search in graphColoring and chromaticNumberBodlaenderKratsch
+        @Param({"true", "false"})
+        public boolean compact;
+
+        Graph<Integer,Integer> graph;
+        Coloring<Integer,Integer> coloring;
+
+        @Setup
+        public void setup() {
+            graph = Graphs.erdosRenyi(n, density, Graphs.SEED);
+            coloring = new Coloring<Integer,Integer>(Graphs.undirectedFactory());
+            coloring.setUseCompactGraph(compact);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Large {
+        //not n, so that -p n=... only sizes the exact algorithms
+        @Param({"100000", "1000000"})
+        public int vertices;
+        @Param({"4", "16"})
+        public int averageDegree;
+
+        CompactGraph<Integer> graph;
+        Coloring<Integer,Integer> coloring;
+
+        @Setup
+        public void setup() {
+            graph = Graphs.sparse(vertices, averageDegree, Graphs.SEED);
+            coloring = new Coloring<Integer,Integer>(Graphs.undirectedFactory());
+        }
+    }
+
+    @Benchmark
+    public Set<Set<Integer>> greedyGraphColoring(Small s) {
+        return s.coloring.greedyGraphColoring(s.graph);
+    }
+
+    @Benchmark
+    public Set<Set<Integer>> graphColoring(Small s) {
+        return s.coloring.graphColoring(s.graph);
+    }
+
+    @Benchmark
+    public int chromaticNumberBodlaenderKratsch(Small s) {
+        return s.coloring.chromaticNumberBodlaenderKratsch(s.graph);
+    }
+
+    @Benchmark
+    public int chromaticNumberBjorklundHusfeldt(Small s) {
+        return s.coloring.chromaticNumberBjorklundHusfeldt(s.graph);
+    }
+
+    @Benchmark
+    public Set<Set<Integer>> dsaturColoring(Large s) {
+        return s.coloring.dsaturColoring(s.graph);
+    }
+
+    @Benchmark
+    public Set<Set<Integer>> smallestLastColoring(Large s) {
+        return s.coloring.smallestLastColoring(s.graph);
+    }
+
+    @Benchmark
+    public Set<Set<Integer>> jonesPlassmannColoring(Large s) {
+        return s.coloring.jonesPlassmannColoring(s.graph, Graphs.SEED);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright University of Orleans - ENSI de Bourges
+ * This software is governed by the CeCILL  license under French law and
+ * abiding by the rules of distribution of free software.  You can  use,
+ * modify and/ or redistribute the software under the terms of the CeCILL
+ * license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info".
+ */
+package agape.benchmarks;
+
+import agape.tools.CompactGraph;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.UndirectedSparseGraph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import org.apache.commons.collections15.Factory;
+
+/**
+ * Seeded random graphs and factories used by the benchmarks. Vertices are
+ * numbered from 0 to n-1 and edges from 0 to m-1; the factories create
+ * negative ids, so that the vertices and edges built by the algorithms never
+ * collide with those of the input graph.
+ */
+public final class Graphs {
+
+    //seed of the benchmark graphs: a benchmark always measures the same instances
+    public static final long SEED = 42;
+
+    private Graphs() {}
+
+    /**
+     * @param n number of vertices
+     * @param p probability of each edge
+     * @param seed seed of the generator
+     * @return an undirected Erdos-Renyi graph G(n,p)
+     */
+    public static Graph<Integer,Integer> erdosRenyi(int n, double p, long seed) {
+        return fill(new UndirectedSparseGraph<Integer,Integer>(), n, p, seed, false);
+    }
+
+    /**
+     * @param n number of vertices
+     * @param p probability of each arc
+     * @param seed seed of the generator
+     * @return a directed Erdos-Renyi graph, each ordered pair being an arc with probability p
+     */
+    public static Graph<Integer,Integer> directedErdosRenyi(int n, double p, long seed) {
+        return fill(new DirectedSparseGraph<Integer,Integer>(), n, p, seed, true);
+    }
+
+    private static Graph<Integer,Integer> fill(Graph<Integer,Integer> g, int n, double p, long seed, boolean directed) {
+        Random r = new Random(seed);
+        for (int v = 0; v < n; v++)
+            g.addVertex(v);
+        int e = 0;
+        for (int u = 0; u < n; u++)
+            for (int v = directed ? 0 : u + 1; v < n; v++)
+                if (u != v && r.nextDouble() < p)
+                    g.addEdge(e++, u, v);
+        return g;
+    }
+
+    /**
+     * Large sparse graph, built directly as a CompactGraph: n*averageDegree/2
+     * distinct edges drawn uniformly (a G(n,m) graph).
+     * @param n number of vertices
+     * @param averageDegree average degree of the vertices
+     * @param seed seed of the generator
+     * @return an undirected G(n,m) graph
+     */
+    public static CompactGraph<Integer> sparse(int n, int averageDegree, long seed) {
+        Random r = new Random(seed);
+        int m = (int) Math.min((long) n * averageDegree / 2, (long) n * (n - 1) / 2);
+        //edge u < v encoded as u*n+v, drawn until m of them are distinct
+        long[] edges = new long[m];
+        int count = 0;
+        while (count < m) {
+            for (int i = count; i < m; i++) {
+                int u = r.nextInt(n), v = r.nextInt(n);
+                edges[i] = u == v ? -1 : (long) Math.min(u, v) * n + Math.max(u, v);
+            }
+            Arrays.sort(edges);
+            count = 0;
+            for (int i = 0; i < m; i++)
+                if (edges[i] >= 0 && (count == 0 || edges[i] != edges[count - 1]))
+                    edges[count++] = edges[i];
+        }
+        int[] degree = new int[n];
+        for (long e : edges) {
+            degree[(int) (e / n)]++;
+            degree[(int) (e % n)]++;
+        }
+        int[][] neighbors = new int[n][];
+        for (int v = 0; v < n; v++)
+            neighbors[v] = new int[degree[v]];
+        Arrays.fill(degree, 0);
+        for (long e : edges) {
+            int u = (int) (e / n), v = (int) (e % n);
+            neighbors[u][degree[u]++] = v;
+            neighbors[v][degree[v]++] = u;
+        }
+        ArrayList<Integer> vertices = new ArrayList<Integer>(n);
+        for (int v = 0; v < n; v++)
+            vertices.add(v);
+        return CompactGraph.fromNeighbors(vertices, neighbors);
+    }
+
+    public static Factory<Graph<Integer,Integer>> undirectedFactory() {
+        return new Factory<Graph<Integer,Integer>>() {
+            public Graph<Integer,Integer> create() { return new UndirectedSparseGraph<Integer,Integer>(); }
+        };
+    }
+
+    public static Factory<Graph<Integer,Integer>> directedFactory() {
+        return new Factory<Graph<Integer,Integer>>() {
+            public Graph<Integer,Integer> create() { return new DirectedSparseGraph<Integer,Integer>(); }
+        };
+    }
+
+    /**
+     * @return a factory of ids -1, -2, ...
+     */
+    public static Factory<Integer> idFactory() {
+        return new Factory<Integer>() {
+            private int c = 0;
+            public Integer create() { return --c; }
+        };
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright University of Orleans - ENSI de Bourges
+ * This software is governed by the CeCILL  license under French law and
+ * abiding by the rules of distribution of free software.  You can  use,
+ * modify and/ or redistribute the software under the terms of the CeCILL
+ * license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info".
+ */
+package agape.benchmarks;
+
+import agape.algos.MIS;
+import edu.uci.ics.jung.graph.Graph;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Independent set algorithms of MIS on G(n,p) graphs. The brute force is
+ * measured by BruteForceBenchmark, on smaller graphs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MISBenchmark {
+
+    @Param({"20", "30"})
+    public int n;
+    @Param({"0.1", "0.2"})
+    public double density;
+
+    private Graph<Integer,Integer> graph;
+    private MIS<Integer,Integer> mis;
+
+    @Setup
+    public void setup() {
+        graph = Graphs.erdosRenyi(n, density, Graphs.SEED);
+        mis = new MIS<Integer,Integer>(Graphs.undirectedFactory(), Graphs.idFactory(), Graphs.idFactory());
+    }
+
+    @Benchmark
+    public Set<Integer> maximalIndependentSetGreedy() {
+        return mis.maximalIndependentSetGreedy(graph);
+    }
+
+    @Benchmark
+    public Set<Integer> moonMoser() {
+        return mis.maximumIndependentSetMoonMoser(graph);
+    }
+
+    @Benchmark
+    public Set<Integer> moonMoserNonRecursive() {
+        return mis.maximumIndependentSetMoonMoserNonRecursive(graph);
+    }
+
+    @Benchmark
+    public Set<Integer> maximumDegree() {
+        return mis.maximumIndependentSetMaximumDegree(graph);
+    }
+
+    @Benchmark
+    public Set<Integer> fominGrandoniKratsch() {
+        return mis.maximuRmIndependentSetFominGrandoniKratsch(graph);
+    }
+}
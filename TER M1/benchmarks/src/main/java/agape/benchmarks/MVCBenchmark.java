@@ -0,0 +1,105 @@
+/*
+ * Copyright University of Orleans - ENSI de Bourges
+ * This software is governed by the CeCILL  license under French law and
+ * abiding by the rules of distribution of free software.  You can  use,
+ * modify and/ or redistribute the software under the terms of the CeCILL
+ * license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info".
+ */
+package agape.benchmarks;
+
+import agape.algos.MVC;
+import edu.uci.ics.jung.graph.Graph;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Vertex cover algorithms of MVC on G(n,p) graphs. The parameterized
+ * algorithms are run with k = opt + kOffset, opt being the size of a minimum
+ * cover: kOffset=0 measures a yes-instance, kOffset=-1 a no-instance.
+ * The brute force is measured by BruteForceBenchmark, on smaller graphs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MVCBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Instance {
+        @Param({"20", "40"})
+        public int n;
+        @Param({"0.1", "0.2"})
+        public double density;
+        //CompactGraph or copy of the JUNG graph
+        @Param({"true", "false"})
+        public boolean compact;
+
+        Graph<Integer,Integer> graph;
+        MVC<Integer,Integer> mvc;
+        int opt;
+
+        @Setup
+        public void setup() {
+            graph = Graphs.erdosRenyi(n, density, Graphs.SEED);
+            mvc = new MVC<Integer,Integer>(Graphs.undirectedFactory());
+            opt = mvc.minimumVertexCover(graph).size();
+            mvc.setUseCompactGraph(compact);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Budget {
+        @Param({"0", "-1"})
+        public int kOffset;
+
+        int k;
+
+        @Setup
+        public void setup(Instance instance) {
+            k = instance.opt + kOffset;
+        }
+    }
+
+    @Benchmark
+    public Set<Integer> twoApproximationCover(Instance s) {
+        return s.mvc.twoApproximationCover(s.graph);
+    }
+
+    @Benchmark
+    public Set<Integer> greedyCoverMaxDegree(Instance s) {
+        return s.mvc.greedyCoverMaxDegree(s.graph);
+    }
+
+    @Benchmark
+    public Set<Integer> minimumVertexCover(Instance s) {
+        return s.mvc.minimumVertexCover(s.graph);
+    }
+
+    @Benchmark
+    public boolean degreeBranchingStrategy(Instance s, Budget b) {
+        return s.mvc.kVertexCoverDegreeBranchingStrategy(s.graph, b.k);
+    }
+
+    @Benchmark
+    public boolean bussGoldsmith(Instance s, Budget b) {
+        return s.mvc.kVertexCoverBussGoldsmith(s.graph, b.k);
+    }
+
+    @Benchmark
+    public boolean niedermeier(Instance s, Budget b) {
+        return s.mvc.kVertexCoverNiedermeier(s.graph, b.k);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright University of Orleans - ENSI de Bourges
+ * This software is governed by the CeCILL  license under French law and
+ * abiding by the rules of distribution of free software.  You can  use,
+ * modify and/ or redistribute the software under the terms of the CeCILL
+ * license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info".
+ */
+package agape.benchmarks;
+
+import agape.algos.MinDFVS;
+import edu.uci.ics.jung.graph.Graph;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Directed feedback vertex set algorithms of MinDFVS on directed G(n,p)
+ * graphs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MinDFVSBenchmark {
+
+    @Param({"8", "12"})
+    public int n;
+    @Param({"0.1", "0.2"})
+    public double density;
+
+    private Graph<Integer,Integer> graph;
+    private MinDFVS<Integer,Integer> dfvs;
+
+    @Setup
+    public void setup() {
+        graph = Graphs.directedErdosRenyi(n, density, Graphs.SEED);
+        dfvs = new MinDFVS<Integer,Integer>(Graphs.directedFactory(), Graphs.idFactory());
+    }
+
+    @Benchmark
+    public Set<ArrayList<Integer>> enumAllCircuitsTarjan() {
+        return dfvs.enumAllCircuitsTarjan(graph);
+    }
+
+    @Benchmark
+    public Set<Integer> greedyMinFVS() {
+        return dfvs.greedyMinFVS(graph);
+    }
+
+    @Benchmark
+    public Set<Integer> maximumDirectedAcyclicSubset() {
+        return dfvs.maximumDirectedAcyclicSubset(graph);
+    }
+
+    @Benchmark
+    public Set<Integer> minimumFeedbackVertexSet() {
+        return dfvs.minimumFeedbackVertexSet(graph);
+    }
+}
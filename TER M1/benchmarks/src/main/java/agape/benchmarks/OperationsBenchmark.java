@@ -0,0 +1,54 @@
+/*
+ * Copyright University of Orleans - ENSI de Bourges
+ * This software is governed by the CeCILL  license under French law and
+ * abiding by the rules of distribution of free software.  You can  use,
+ * modify and/ or redistribute the software under the terms of the CeCILL
+ * license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info".
+ */
+package agape.benchmarks;
+
+import agape.tools.Operations;
+import edu.uci.ics.jung.graph.Graph;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Copy of a JUNG graph (Operations.copyGraph), made by most of the
+ * algorithms before they modify the graph.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class OperationsBenchmark {
+
+    @Param({"100", "1000"})
+    public int n;
+    @Param({"0.01", "0.1"})
+    public double density;
+
+    private Graph<Integer,Integer> graph;
+
+    @Setup
+    public void setup() {
+        graph = Graphs.erdosRenyi(n, density, Graphs.SEED);
+    }
+
+    @Benchmark
+    public Graph<Integer,Integer> copyGraph() {
+        return Operations.copyGraph(graph, Graphs.undirectedFactory());
+    }
+}
@@ -6,8 +6,8 @@ public class BruteForce extends VertexCover{
 
 	@Override
 	public boolean algo(int n, Graphe g) {
-		MVC mvc = new MVC(g.getFactory());
-		return mvc.kVertexCoverBruteForce(g.getGraphe(), n);
+		MVC mvc = creerMVC(g);
+		return mvc.kVertexCoverBruteForce(g.getGrapheCompact(), n);
 	}
 	
 }
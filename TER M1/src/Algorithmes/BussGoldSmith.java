@@ -6,8 +6,8 @@ public class BussGoldSmith extends VertexCover{
 
 	@Override
 	public boolean algo(int n, Graphe g) {
-		MVC mvc = new MVC(g.getFactory());
-		return mvc.kVertexCoverBussGoldsmith(g.getGraphe(), n);
+		MVC mvc = creerMVC(g);
+		return mvc.kVertexCoverBussGoldsmith(g.getGrapheCompact(), n);
 	}
 	
 }
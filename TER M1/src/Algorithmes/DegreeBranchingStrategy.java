@@ -6,8 +6,8 @@ public class DegreeBranchingStrategy extends VertexCover{
 
 	@Override
 	public boolean algo(int n, Graphe g) {
-		MVC mvc = new MVC(g.getFactory());
-		return mvc.kVertexCoverDegreeBranchingStrategy(g.getGraphe(), n);
+		MVC mvc = creerMVC(g);
+		return mvc.kVertexCoverDegreeBranchingStrategy(g.getGrapheCompact(), n);
 	}
 	
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package Algorithmes;
+import Batterie.*;
+import agape.algos.MVC;
+import java.util.Set;
+
+//calcule une couverture minimum (recherche dichotomique sur k), sa taille est donnee dans le Resultat
+public class MinimumVertexCover extends VertexCover{
+
+	@Override
+	public boolean algo(int n, Graphe g) {
+		MVC mvc = creerMVC(g);
+		Set couverture = mvc.minimumVertexCover(g.getGrapheCompact());
+		tailleCouverture = couverture.size();
+		return tailleCouverture <= n;
+	}
+	
+	@Override
+	public String getNom() {
+		return getClass().getSimpleName();
+	}
+
+}
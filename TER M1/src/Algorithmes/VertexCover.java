@@ -1,7 +1,91 @@
 package Algorithmes;
 import Batterie.*;
+import agape.algos.MVC;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
 
-public abstract class VertexCover {
+public abstract class VertexCover implements Cloneable {
+
+	//mode de recherche des algorithmes de branchement :
+	//DECISION s'arrete a la premiere couverture de taille <= n, OPTIMIZE cherche la plus petite
+	protected MVC.SearchMode mode = MVC.SearchMode.OPTIMIZE;
+
+	public void setMode(MVC.SearchMode m) {
+		mode = m;
+	}
+
+	public MVC.SearchMode getMode() {
+		return mode;
+	}
+
+	//taille de la couverture calculee par le dernier appel de algo(), -1 si l'algo ne la donne pas
+	protected int tailleCouverture = -1;
+
+	//limites de chaque appel de algo(), 0 pour aucune :
+	//temps en millisecondes et nombre de noeuds de l'arbre de recherche
+	protected long tempsMax = 0;
+	protected long noeudsMax = 0;
+
+	public void setLimites(long tempsMax, long noeudsMax) {
+		this.tempsMax = tempsMax;
+		this.noeudsMax = noeudsMax;
+	}
+
+	//si vrai, les MVC comptent les noeuds de recherche et les regles de branchement (voir agape.test.Tracker)
+	protected boolean instrumentation = false;
+
+	public void setInstrumentation(boolean b) {
+		instrumentation = b;
+	}
+
+	//si vrai, mesurer() donne le temps de GC de la JVM pendant les repetitions ; a desactiver quand
+	//plusieurs algos sont mesures en meme temps, chacun se verrait compter les collections des autres
+	protected boolean mesureGC = true;
+
+	public void setMesureGC(boolean b) {
+		mesureGC = b;
+	}
+
+	//MVC utilise par le dernier appel de algo(), pour savoir s'il a ete interrompu
+	protected MVC dernierMVC;
+
+	//cree le MVC utilise par algo(), avec le mode et les limites de l'algo
+	protected MVC creerMVC(Graphe g) {
+		dernierMVC = new MVC(g.getFactory());
+		dernierMVC.setSearchMode(mode);
+		dernierMVC.setTimeLimit(tempsMax);
+		dernierMVC.setNodeLimit(noeudsMax);
+		if(instrumentation)
+			dernierMVC.initTracker();
+		return dernierMVC;
+	}
+
+	//copie de l'algo, pour que chaque thread de la batterie parallele ait la sienne
+	public VertexCover copie() {
+		try {
+			return (VertexCover) clone();
+		}
+		catch(CloneNotSupportedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	//nom de l'algo dans les resultats (le mode decision est precise)
+	public String getNom() {
+		String nom = getClass().getSimpleName();
+		if(mode == MVC.SearchMode.DECISION)
+			nom += "-decision";
+		return nom;
+	}
+
+	//version de l'algo dans les cles des resultats (voir MagasinResultats) : a changer quand l'algo change,
+	//pour qu'une batterie reprise recalcule ses resultats au lieu de garder ceux de l'ancienne version
+	//(version 2 : les temps ne comptent plus la copie du graphe ; version 3 : temps GC moyen par execution)
+	public String getVersion() {
+		return "3";
+	}
 
 	// implmenter par les gnies
 	public abstract boolean algo(int n, Graphe g);
@@ -9,18 +93,74 @@ public abstract class VertexCover {
 	//test de l'algo pour un graphe et un n donn
 	//retourne un objet Resultat qui contient le temps d'exec et la rponse oui ou non.
 	public Resultat run(int n, Graphe g) {
+		return mesurer(n, g, 0, 1);
+	}
+	
+	//mode mesure : l'algo est lance echauffement fois sans mesure (pour que le JIT le compile),
+	//puis repetitions fois en mesurant chaque execution. Le Resultat contient les statistiques
+	//des temps (le temps d'execution est la mediane), et les moyennes du temps CPU et des octets
+	//alloues par le thread courant (les taches d'un MVC parallele ne sont pas comptees), ainsi que le temps
+	//de GC moyen par execution, pour toute la JVM (-1 si mesureGC est faux).
+	//Apres un TIMEOUT, les repetitions s'arretent ; si c'est un echauffement qui depasse la limite,
+	//les echauffements et repetitions restants sont sautes et cette execution est le Resultat.
+	//La representation compacte du graphe est construite avant les mesures, qui ne comptent que la recherche.
+	public Resultat mesurer(int n, Graphe g, int echauffement, int repetitions) {
+		g.getGrapheCompact();
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		boolean cpu = threads.isCurrentThreadCpuTimeSupported();
+		float[] temps = new float[Math.max(1, repetitions)];
+		long tempsCPU = 0, allocation = 0, tempsGC = 0;
+		boolean reponse = false, timeout = false;
+		int nb = 0;
+		for(int i=0; nb<temps.length && !timeout; i++) {
+			tailleCouverture = -1;
+			dernierMVC = null;
+			long gc = tempsGC();
+			long alloc = octetsAlloues(threads);
+			long startCPU = cpu ? threads.getCurrentThreadCpuTime() : 0;
+			long startTime = System.nanoTime();
+			reponse = algo(n, g);
+			long endTime = System.nanoTime();
+			//si une limite a ete depassee, la reponse n'a pas de sens et le temps mesure est un minorant
+			timeout = dernierMVC != null && dernierMVC.isInterrupted();
+			if(i<echauffement && !timeout)
+				continue;
+			if(cpu)
+				tempsCPU += threads.getCurrentThreadCpuTime()-startCPU;
+			allocation += octetsAlloues(threads)-alloc;
+			tempsGC += tempsGC()-gc;
+			temps[nb++] = (endTime - startTime)/1000000F;
+		}
 		Resultat r = new Resultat();
-		long startTime = System.nanoTime();
-		//long startTime = System.currentTimeMillis();
-		boolean reponse = algo(n, g);
-		long endTime = System.nanoTime();
-		//long endTime = System.currentTimeMillis();
-		long duration = (endTime - startTime);
 		r.setRep(reponse);
-		float dur = duration/1000000F;
-		r.setTemps(dur);
-		//System.out.println(r);
+		r.setTimeout(timeout);
+		r.setTemps(Arrays.copyOf(temps, nb));
+		r.setTaille(tailleCouverture);
+		r.setTailleGraphe(g.getGraphe().getVertexCount());
+		if(cpu)
+			r.setTempsCPU(tempsCPU/1000000F/nb);
+		if(octetsAlloues(threads)>=0)
+			r.setAllocation(allocation/nb);
+		r.setTempsGC(mesureGC ? (float) tempsGC/nb : -1);
+		//compteurs de la derniere repetition
+		if(dernierMVC != null && dernierMVC.getTracker() != null)
+			r.setCompteurs(dernierMVC.getTracker().getCounts());
 		return r;
 	}
 	
+	//octets alloues par le thread courant, -1 si la JVM ne les donne pas
+	private static long octetsAlloues(ThreadMXBean threads) {
+		if(threads instanceof com.sun.management.ThreadMXBean)
+			return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+		return -1;
+	}
+	
+	//temps total passe dans le GC depuis le lancement de la JVM, en millisecondes
+	private static long tempsGC() {
+		long t = 0;
+		for(GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+			t += Math.max(0, gc.getCollectionTime());
+		return t;
+	}
+	
 }
@@ -0,0 +1,125 @@
+package Batterie;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+//agregat des resultats d'un algo sur les graphes d'une meme taille.
+//les temps des TIMEOUT sont des minorants : ils sont comptes dans les temps, et leur nombre est donne a part.
+public class Agregat {
+	
+	private String nomAlgo;
+	private int tailleGraphe;
+	//temps d'execution (medianes des repetitions) de chaque resultat
+	private ArrayList<Float> temps = new ArrayList<Float>();
+	private int nbTimeouts;
+	private double tempsCPU;
+	private int nbTempsCPU;
+	private double allocation;
+	private int nbAllocations;
+	//le temps de GC est celui de toute la JVM : il n'est pas additionne, seule sa moyenne est donnee
+	private double tempsGC;
+	private int nbTempsGC;
+	//somme des compteurs de l'instrumentation, et nombre de resultats qui en ont
+	private TreeMap<String, Long> compteurs = new TreeMap<String, Long>();
+	private int nbCompteurs;
+	
+	public Agregat(String nomAlgo, int tailleGraphe) {
+		this.nomAlgo=nomAlgo;
+		this.tailleGraphe=tailleGraphe;
+	}
+	
+	public void ajouter(Resultat r) {
+		temps.add(r.getTemps());
+		if(r.isTimeout())
+			nbTimeouts++;
+		if(r.getTempsCPU()>=0) {
+			tempsCPU+=r.getTempsCPU();
+			nbTempsCPU++;
+		}
+		if(r.getAllocation()>=0) {
+			allocation+=r.getAllocation();
+			nbAllocations++;
+		}
+		if(r.getTempsGC()>=0) {
+			tempsGC+=r.getTempsGC();
+			nbTempsGC++;
+		}
+		if(r.getCompteurs()!=null) {
+			for(Map.Entry<String, Long> e : r.getCompteurs().entrySet()) {
+				Long c = compteurs.get(e.getKey());
+				compteurs.put(e.getKey(), (c==null ? 0 : c)+e.getValue());
+			}
+			nbCompteurs++;
+		}
+	}
+	
+	public String getAlgo() {
+		return nomAlgo;
+	}
+	
+	public int getTailleGraphe() {
+		return tailleGraphe;
+	}
+	
+	public int getNbResultats() {
+		return temps.size();
+	}
+	
+	public int getNbTimeouts() {
+		return nbTimeouts;
+	}
+	
+	public float getTempsTotal() {
+		float somme = 0;
+		for(float t : temps)
+			somme+=t;
+		return somme;
+	}
+	
+	public float getTempsMoyen() {
+		return temps.isEmpty() ? 0 : getTempsTotal()/temps.size();
+	}
+	
+	public float getTempsMedian() {
+		if(temps.isEmpty())
+			return 0;
+		ArrayList<Float> t = new ArrayList<Float>(temps);
+		Collections.sort(t);
+		int m = t.size()/2;
+		return t.size()%2==1 ? t.get(m) : (t.get(m-1)+t.get(m))/2;
+	}
+	
+	public float getTempsMax() {
+		return temps.isEmpty() ? 0 : Collections.max(temps);
+	}
+	
+	//temps CPU moyen par execution, -1 s'il n'est pas connu
+	public float getTempsCPUMoyen() {
+		return nbTempsCPU==0 ? -1 : (float)(tempsCPU/nbTempsCPU);
+	}
+	
+	//octets alloues en moyenne par execution, -1 s'ils ne sont pas connus
+	public long getAllocationMoyenne() {
+		return nbAllocations==0 ? -1 : (long)(allocation/nbAllocations);
+	}
+	
+	//temps de GC de la JVM moyen par execution, -1 s'il n'est pas connu
+	public float getTempsGCMoyen() {
+		return nbTempsGC==0 ? -1 : (float)(tempsGC/nbTempsGC);
+	}
+	
+	//moyennes des compteurs sous la forme nom=valeur;nom=valeur, vide si l'instrumentation est desactivee
+	public String getCompteursMoyensTexte() {
+		String res = "";
+		for(Map.Entry<String, Long> e : compteurs.entrySet())
+			res += (res.isEmpty() ? "" : ";")+e.getKey()+"="+e.getValue()/nbCompteurs;
+		return res;
+	}
+	
+	public String toString() {
+		return nomAlgo+" ("+tailleGraphe+" sommets, "+getNbResultats()+" graphes, "+nbTimeouts+" timeouts) : "
+				+"moyenne "+getTempsMoyen()+" ms, mediane "+getTempsMedian()+" ms, max "+getTempsMax()+" ms, "
+				+"CPU "+getTempsCPUMoyen()+" ms, allocation "+getAllocationMoyenne()+" octets, GC JVM "+getTempsGCMoyen()+" ms";
+	}
+}
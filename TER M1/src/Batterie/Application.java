@@ -1,5 +1,7 @@
 package Batterie;
 import Algorithmes.*;
+import agape.algos.MVC;
+import java.awt.GraphicsEnvironment;
 import java.util.ArrayList;
 
 import edu.uci.ics.jung.graph.Graph;
@@ -9,33 +11,77 @@ public class Application {
 	
 	public static void main(String[] args) {
 		
-		ArrayList<Graphe> mesGraphes;
+		//"balayage" en argument : carte de la transition NON/OUI de k-VC au lieu de la batterie
+		if(args.length>0 && args[0].equals("balayage")) {
+			balayage();
+			return;
+		}
+		
 		ArrayList<VertexCover> mesAlgos=new ArrayList<>();
 		
-		//cre un fichier "test1.txt" de 10 graphes de taille 200 avec 50% de chance que chaque arte existe
-		//mthode de gnration : ErdosRenyi
-		GestionnaireDeFichiers.creerFichierErdosRenyi("test1.txt", 10, 300, 0.5);
+		//cre un corpus binaire "test1.bin" de 10 graphes de taille 300 avec 50% de chance que chaque arte existe
+		//mthode de gnration : ErdosRenyi (creerFichierErdosRenyi crit l'ancien format texte)
+		//la graine 42 est crite dans le corpus : chaque graphe peut tre rgnr  l'identique
+		GestionnaireDeFichiers.creerCorpusErdosRenyi("test1.bin", 10, 300, 0.5, 42);
 		
-		//rcupere les graphes du fichier "test1.txt" et les ajoute dans une ArrayList
-		mesGraphes = GestionnaireDeFichiers.recupererFichierGraphes("mesGraphes/ErdosRenyi/test1.txt");
+		//les graphes du corpus sont lus un par un pendant la batterie, sans les garder en mmoire
+		//(GestionnaireDeFichiers.recupererFichierGraphes les charge tous dans une ArrayList)
+		CorpusGraphes mesGraphes = new CorpusGraphes("mesGraphes/ErdosRenyi/test1.bin");
 		
 		//test avec les algorithmes degreeBranchingStrategy et bussGoldMmith de la bibliotheque Agape 
 		VertexCover bussGoldSmith = new BussGoldSmith();
 		VertexCover degreeBranchingStrategy = new DegreeBranchingStrategy();
 		mesAlgos.add(degreeBranchingStrategy);
 		mesAlgos.add(bussGoldSmith);
+		//meme algorithmes en mode decision (arret a la premiere couverture trouvee)
+		VertexCover bussGoldSmithDecision = new BussGoldSmith();
+		bussGoldSmithDecision.setMode(MVC.SearchMode.DECISION);
+		VertexCover degreeBranchingStrategyDecision = new DegreeBranchingStrategy();
+		degreeBranchingStrategyDecision.setMode(MVC.SearchMode.DECISION);
+		mesAlgos.add(degreeBranchingStrategyDecision);
+		mesAlgos.add(bussGoldSmithDecision);
+		//couverture minimum : la taille trouvee est ecrite dans les resultats
+		mesAlgos.add(new MinimumVertexCover());
 		
 		//cration de la batterie de test
 		BatterieTest b = new BatterieTest(mesGraphes, mesAlgos);
-		//on test pour n=5
-		b.runBatterie(5);
+		//au plus une minute par algo et par graphe
+		b.setLimites(60000, 0);
+		//2 executions d'echauffement puis 5 executions mesurees par algo et par graphe
+		b.setMesure(2, 5);
+		//compteurs des noeuds et des regles de branchement dans les resultats
+		b.setInstrumentation(true);
+		//on test pour n=5, un couple (algo, graphe) par coeur,
+		//les rsultats tant crits au fur et  mesure dans le fichier csv
+		b.runBatterieFlux(5, Runtime.getRuntime().availableProcessors(), true, "test1.csv");
 		
-		//gnre le fichier des rsultats au format csv
-		GestionnaireDeFichiers.creerResultat("test1.csv", b.getResultats());
+		//gnre le fichier des agregats par algo et par taille de graphe
+		b.afficherAgregats();
+		GestionnaireDeFichiers.creerAgregats("test1-agregats.csv", b.getAgregats());
 		
-		//rcupre le fichier csv et affiche les courbes
-		GestionnaireDeFichiers.afficheCourbe("test1.csv");
+		//rapport (agregats et courbes en SVG et en PNG), puis affichage des courbes s'il y a un ecran
+		GestionnaireDeFichiers.exporterRapport("test1.csv");
+		if(!GraphicsEnvironment.isHeadless())
+			GestionnaireDeFichiers.afficheCourbe("test1.csv");
 
 	}
+	
+	//balayage de degreeBranchingStrategy en mode decision sur des graphes d'Erdos-Renyi :
+	//pour n=40,60,80 et p=0.05,0.1,0.2, 10 graphes par point, k de n/2 a 9n/10 puis raffine autour de la transition
+	public static void balayage() {
+		VertexCover degreeBranchingStrategy = new DegreeBranchingStrategy();
+		degreeBranchingStrategy.setMode(MVC.SearchMode.DECISION);
+		degreeBranchingStrategy.setLimites(60000, 0);
+		Balayage b = new Balayage(degreeBranchingStrategy);
+		b.setFamille(Balayage.Famille.ERDOS_RENYI);
+		b.setTailles(40, 60, 80);
+		b.setParametres(0.05, 0.1, 0.2);
+		b.setFractionsK(0.5, 0.6, 0.7, 0.8, 0.9);
+		b.setNbGraphes(10);
+		b.run(Runtime.getRuntime().availableProcessors());
+		b.afficher();
+		b.ecrireMatrice("balayage.csv");
+		GestionnaireDeFichiers.exporterRapport("balayage.csv");
+	}
 
 }
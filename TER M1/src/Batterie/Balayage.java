@@ -0,0 +1,345 @@
+package Batterie;
+import Algorithmes.VertexCover;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.collections15.Factory;
+
+import agape.generators.RandGenerator;
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.UndirectedSparseGraph;
+
+//balayage d'un algo de decision (k-VC) sur une grille de points (n, parametre, k), pour situer la transition
+//entre les k pour lesquels la reponse est NON et ceux pour lesquels elle est OUI, ou le temps d'execution est maximal.
+//pour chaque couple (n, parametre), nbGraphes graphes de la famille choisie sont generes une fois, puis l'algo
+//est lance sur chacun pour chaque k ; les cellules (graphe, k) sont lancees en parallele.
+//les k sont donnes en fractions de n ; apres le premier passage, chaque raffinement ajoute le k du milieu
+//des intervalles ou la proportion de OUI change, jusqu'a ce que ces intervalles soient de largeur 1 ;
+//si le plus petit k est deja tout OUI (ou le plus grand tout NON), la grille est etendue vers 0 (ou vers n).
+public class Balayage {
+
+	//familles de graphes ; le sens du parametre depend de la famille
+	public enum Famille {
+		//parametre : probabilite de chaque arete (graphes reproductibles, voir GenerateurErdosRenyi)
+		ERDOS_RENYI,
+		//parametre : nombre d'aretes attachees a chaque nouveau sommet
+		BARABASI_ALBERT,
+		//parametre : probabilite de recabler chaque arete d'un anneau de degre 4
+		WATTS_STROGATZ,
+		//parametre : exposant r des liens longs d'une grille de cote racine de n (un lien long par sommet)
+		KLEINBERG,
+		//parametre : degre de chaque sommet
+		REGULIER
+	}
+
+	//un point de la grille
+	public static class Point implements Comparable<Point> {
+		private int n;
+		private double parametre;
+		private int k;
+
+		Point(int n, double parametre, int k) {
+			this.n=n;
+			this.parametre=parametre;
+			this.k=k;
+		}
+
+		public int getN() {
+			return n;
+		}
+
+		public double getParametre() {
+			return parametre;
+		}
+
+		public int getK() {
+			return k;
+		}
+
+		public int compareTo(Point p) {
+			if(n!=p.n)
+				return Integer.compare(n, p.n);
+			if(parametre!=p.parametre)
+				return Double.compare(parametre, p.parametre);
+			return Integer.compare(k, p.k);
+		}
+
+		public boolean equals(Object o) {
+			return o instanceof Point && compareTo((Point) o)==0;
+		}
+
+		public int hashCode() {
+			return 31*(31*n+Double.hashCode(parametre))+k;
+		}
+
+		public String toString() {
+			return "n="+n+", parametre="+parametre+", k="+k;
+		}
+	}
+
+	//resultats des graphes d'un point
+	public static class Cellule {
+		private ArrayList<Float> temps = new ArrayList<Float>();
+		private int nbOui;
+		private int nbTimeouts;
+
+		void ajouter(Resultat r) {
+			temps.add(r.getTemps());
+			if(r.isTimeout())
+				nbTimeouts++;
+			else if(r.getRep())
+				nbOui++;
+		}
+
+		public int getNbGraphes() {
+			return temps.size();
+		}
+
+		public int getNbOui() {
+			return nbOui;
+		}
+
+		public int getNbTimeouts() {
+			return nbTimeouts;
+		}
+
+		//proportion de OUI parmi les graphes dont la reponse est connue, -1 s'il n'y en a pas
+		public double getProportionOui() {
+			int connues = temps.size()-nbTimeouts;
+			return connues==0 ? -1 : (double) nbOui/connues;
+		}
+
+		public float getTempsMedian() {
+			ArrayList<Float> t = new ArrayList<Float>(temps);
+			Collections.sort(t);
+			int m = t.size();
+			return m==0 ? 0 : m%2==1 ? t.get(m/2) : (t.get(m/2-1)+t.get(m/2))/2;
+		}
+
+		public float getTempsMoyen() {
+			float somme = 0;
+			for(float x : temps)
+				somme += x;
+			return temps.isEmpty() ? 0 : somme/temps.size();
+		}
+
+		public float getTempsMax() {
+			return temps.isEmpty() ? 0 : Collections.max(temps);
+		}
+	}
+
+	private VertexCover algo;
+	private Famille famille = Famille.ERDOS_RENYI;
+	private int[] tailles = {50};
+	private double[] parametres = {0.1};
+	private double[] fractionsK = {0.5, 0.6, 0.7, 0.8, 0.9};
+	private int nbGraphes = 10;
+	private long graine = 42;
+	private int maxRaffinements = 4;
+	private TreeMap<Point, Cellule> matrice = new TreeMap<Point, Cellule>();
+
+	//l'algo doit etre en mode decision (setMode(MVC.SearchMode.DECISION) pour les algos de branchement) ;
+	//il est copie pour chaque cellule, avec ses limites
+	public Balayage(VertexCover algo) {
+		this.algo=algo;
+	}
+
+	public void setFamille(Famille f) {
+		famille=f;
+	}
+
+	public void setTailles(int... n) {
+		tailles=n;
+	}
+
+	public void setParametres(double... p) {
+		parametres=p;
+	}
+
+	//k de depart, en fractions de n
+	public void setFractionsK(double... f) {
+		fractionsK=f;
+	}
+
+	public void setNbGraphes(int nb) {
+		nbGraphes=nb;
+	}
+
+	//graine des graphes d'Erdos-Renyi ; les generateurs de RandGenerator utilisent Math.random
+	public void setGraine(long g) {
+		graine=g;
+	}
+
+	//nombre maximal de tours de raffinement autour de la frontiere OUI/NON, 0 pour aucun
+	public void setMaxRaffinements(int m) {
+		maxRaffinements=m;
+	}
+
+	public TreeMap<Point, Cellule> getMatrice() {
+		return matrice;
+	}
+
+	//lance le balayage sur nbThreads threads
+	public void run(int nbThreads) {
+		System.out.println("///// BALAYAGE DE "+algo.getNom()+" SUR "+famille+" ("+tailles.length+" tailles, "
+			+parametres.length+" parametres, "+nbGraphes+" graphes par point) SUR "+nbThreads+" THREADS /////");
+		ExecutorService pool = Executors.newFixedThreadPool(nbThreads);
+		try {
+			int indice=0;
+			for(int n : tailles)
+				for(double p : parametres) {
+					ArrayList<Graphe> graphes = new ArrayList<Graphe>();
+					for(int i=0; i<nbGraphes; i++)
+						graphes.add(generer(n, p, GenerateurErdosRenyi.graineGraphe(graine, indice), i));
+					indice++;
+					TreeSet<Integer> ks = new TreeSet<Integer>();
+					for(double f : fractionsK)
+						ks.add((int)Math.round(f*n));
+					for(int tour=0; !ks.isEmpty(); tour++) {
+						lancer(pool, n, p, graphes, ks);
+						if(tour>=maxRaffinements)
+							break;
+						ks = raffiner(n, p);
+					}
+				}
+		}
+		finally {
+			pool.shutdownNow();
+		}
+	}
+
+	//lance l'algo sur chaque graphe pour chaque k, et range les resultats dans la matrice
+	private void lancer(ExecutorService pool, int n, double p, ArrayList<Graphe> graphes, TreeSet<Integer> ks) {
+		ArrayList<Point> points = new ArrayList<Point>();
+		ArrayList<Future<Resultat>> cellules = new ArrayList<Future<Resultat>>();
+		for(int k : ks)
+			for(Graphe g : graphes) {
+				final VertexCover copie = algo.copie();
+				points.add(new Point(n, p, k));
+				cellules.add(pool.submit(() -> copie.run(k, g)));
+			}
+		for(int i=0; i<cellules.size(); i++) {
+			try {
+				Resultat r = cellules.get(i).get();
+				Cellule c = matrice.get(points.get(i));
+				if(c==null) {
+					c = new Cellule();
+					matrice.put(points.get(i), c);
+				}
+				c.ajouter(r);
+			}
+			catch(InterruptedException | ExecutionException e) {
+				System.out.println(e);
+			}
+		}
+	}
+
+	//k a ajouter pour (n, p) : le milieu de chaque intervalle entre deux k consecutifs deja calcules
+	//dont les proportions de OUI different, et, tant que la frontiere n'est pas encadree, le milieu
+	//entre le plus petit k et 0 s'il est tout OUI, entre le plus grand k et n s'il est tout NON
+	private TreeSet<Integer> raffiner(int n, double p) {
+		TreeSet<Integer> ks = new TreeSet<Integer>();
+		Map.Entry<Point, Cellule> premier = null, precedent = null;
+		for(Map.Entry<Point, Cellule> e : matrice.subMap(new Point(n, p, Integer.MIN_VALUE), new Point(n, p, Integer.MAX_VALUE)).entrySet()) {
+			if(precedent==null)
+				premier = e;
+			else if(e.getKey().getK()-precedent.getKey().getK()>1
+					&& e.getValue().getProportionOui()!=precedent.getValue().getProportionOui())
+				ks.add((precedent.getKey().getK()+e.getKey().getK())/2);
+			precedent = e;
+		}
+		if(premier!=null) {
+			int kMin = premier.getKey().getK(), kMax = precedent.getKey().getK();
+			if(kMin>0 && premier.getValue().getProportionOui()==1)
+				ks.add(kMin/2);
+			if(kMax<n && precedent.getValue().getProportionOui()==0)
+				ks.add((kMax+n+1)/2);
+		}
+		return ks;
+	}
+
+	//graphe i de la famille pour (n, p)
+	private Graphe generer(int n, double p, long graine, int i) {
+		if(famille==Famille.ERDOS_RENYI)
+			return GenerateurErdosRenyi.regenerer(graine, p, n, i);
+		Factory<Graph<Integer, String>> grapheFactory = new Factory<Graph<Integer, String>>() {
+			public Graph<Integer, String> create() {
+				return new UndirectedSparseGraph<Integer, String>();
+			}
+		};
+		Factory<Integer> vertexFactory = new Factory<Integer>() {
+			int count;
+			public Integer create() {
+				return count++;
+			}
+		};
+		Factory<String> edgeFactory = new Factory<String>() {
+			int count;
+			public String create() {
+				count++;
+				return "E"+count;
+			}
+		};
+		Graph<Integer, String> jungGraphe;
+		try {
+			switch(famille) {
+			case BARABASI_ALBERT:
+				//e+1 sommets de depart, puis un sommet par etape
+				int e = Math.max(1, (int)Math.round(p));
+				jungGraphe = RandGenerator.generateBarabasiAlbertGraph(grapheFactory, vertexFactory, edgeFactory, e+1, e, Math.max(0, n-e-1));
+				break;
+			case WATTS_STROGATZ:
+				jungGraphe = RandGenerator.generateWattsStrogatzSWGraph(grapheFactory, vertexFactory, edgeFactory, n, 4, p);
+				break;
+			case KLEINBERG:
+				int cote = (int)Math.round(Math.sqrt(n));
+				jungGraphe = RandGenerator.generateKleinbergSWGraph(grapheFactory, vertexFactory, edgeFactory, cote, cote, 1, 1, p);
+				break;
+			default:
+				//le generateur recommence tant que le graphe n'est pas regulier : il ne terminerait pas
+				int d = (int)Math.round(p);
+				if(d>=n || n*d%2!=0)
+					throw new Exception("pas de graphe "+d+"-regulier a "+n+" sommets");
+				jungGraphe = RandGenerator.generateRandomRegularGraph(grapheFactory, vertexFactory, edgeFactory, n, d);
+			}
+		}
+		catch(Exception e) {
+			throw new IllegalArgumentException(famille+" : parametres n="+n+", "+p+" impossibles", e);
+		}
+		Graphe g = new Graphe();
+		g.setGraphe(jungGraphe);
+		return g;
+	}
+
+	//affiche la matrice : une ligne par point
+	public void afficher() {
+		for(Map.Entry<Point, Cellule> e : matrice.entrySet()) {
+			Cellule c = e.getValue();
+			System.out.println(e.getKey()+" : "+c.getNbOui()+"/"+c.getNbGraphes()+" OUI, "+c.getNbTimeouts()+" timeouts, mediane "+c.getTempsMedian()+" ms, max "+c.getTempsMax()+" ms");
+		}
+	}
+
+	//ecrit la matrice au format csv dans Resultats
+	public void ecrireMatrice(String titreFichier) {
+		try(PrintWriter writer = new PrintWriter("Resultats/"+titreFichier)) {
+			writer.println("Algorithme, Famille, Nombre de sommets, Parametre, k, Nombre de graphes, Oui, Timeouts, Proportion oui, Temps median, Temps moyen, Temps max");
+			for(Map.Entry<Point, Cellule> e : matrice.entrySet()) {
+				Point p = e.getKey();
+				Cellule c = e.getValue();
+				writer.println(algo.getNom()+","+famille+","+p.getN()+","+p.getParametre()+","+p.getK()+","+c.getNbGraphes()+","+c.getNbOui()
+					+","+c.getNbTimeouts()+","+c.getProportionOui()+","+c.getTempsMedian()+","+c.getTempsMoyen()+","+c.getTempsMax());
+			}
+		}
+		catch(Exception e) {
+			System.out.println(e);
+		}
+	}
+}
@@ -1,22 +1,66 @@
 package Batterie;
 import Algorithmes.*;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 //Une liste de graphes, une liste d'algos. Chaque algo est test sur chaque graphe et gnre un objet Rsultat  chaque test.
 
 public class BatterieTest {
 	private ArrayList<Graphe> mesGraphes = new ArrayList<Graphe>();
+	//graphes lus a la demande par runBatterieFlux (par exemple un CorpusGraphes), null pour utiliser mesGraphes
+	private Iterable<Graphe> corpus;
+	//nom du corpus dans les cles des resultats de runBatterieReprise, null pour le deduire du corpus
+	private String nomCorpus;
 	private ArrayList<VertexCover> mesAlgos = new ArrayList<VertexCover>();
 	private ArrayList<Resultat> mesResultats = new ArrayList<Resultat>();
 	private HashMap<String, Float> tempsTotalParAlgo = new HashMap<>();
 	private HashMap<String, Float> tempsMoyenParAlgo = new HashMap<>();
+	//agregats des resultats par algo puis par taille de graphe
+	private HashMap<String, TreeMap<Integer, Agregat>> agregats = new HashMap<>();
+	//mode mesure : nombre d'executions d'echauffement et d'executions mesurees pour chaque couple (algo, graphe)
+	private int echauffement = 0;
+	private int repetitions = 1;
 	
 	public BatterieTest(ArrayList<Graphe> g, ArrayList<VertexCover> a) {
 		mesGraphes=g;
 		mesAlgos=a;
 	}
 	
+	//batterie sur des graphes lus a la demande, a lancer avec runBatterieFlux
+	public BatterieTest(Iterable<Graphe> corpus, ArrayList<VertexCover> a) {
+		this.corpus=corpus;
+		mesAlgos=a;
+	}
+	
+	//limite chaque execution d'un algo sur un graphe (0 pour aucune limite) :
+	//une execution qui depasse la limite est arretee et notee TIMEOUT dans son Resultat
+	public void setLimites(long tempsMaxMillis, long noeudsMax) {
+		for(VertexCover a : mesAlgos)
+			a.setLimites(tempsMaxMillis, noeudsMax);
+	}
+	
+	//instrumentation des algos : les compteurs de chaque execution sont ecrits dans son Resultat
+	public void setInstrumentation(boolean b) {
+		for(VertexCover a : mesAlgos)
+			a.setInstrumentation(b);
+	}
+	
+	//mode mesure (voir VertexCover.mesurer) : par defaut, pas d'echauffement et une seule execution
+	public void setMesure(int echauffement, int repetitions) {
+		this.echauffement=echauffement;
+		this.repetitions=repetitions;
+	}
+	
 	//applique tous les algos sur tous les graphes et gnre un objet Resultat  chaque essaie
 	//pour un n donn
 	public void runBatterie(int n) {
@@ -29,24 +73,239 @@ public class BatterieTest {
 		String nomAlgoCourant="";
 		
 		for(int i=0; i<mesAlgos.size();i++) {
-			nomAlgoCourant=mesAlgos.get(i).getClass().getSimpleName();
+			nomAlgoCourant=mesAlgos.get(i).getNom();
 			//System.out.println("Test de l'algo : "+nomAlgoCourant);
 			for(int j=0; j<mesGraphes.size();j++) {
 				//System.out.println("Test sur le graphe suivant : ");
 				//System.out.println(mesGraphes.get(j).getGraphe().toString());
-				currentResultat = mesAlgos.get(i).run(n, mesGraphes.get(j));
+				currentResultat = mesAlgos.get(i).mesurer(n, mesGraphes.get(j), echauffement, repetitions);
 				currentResultat.setAlgo(nomAlgoCourant);
-				mesResultats.add(currentResultat);
+				ajouterResultat(currentResultat);
 				tempsTotalCourant+=currentResultat.getTemps();
 				nbAlgos++;
 			}
 			tempsTotalParAlgo.put(nomAlgoCourant, tempsTotalCourant);
-			tempsTotalParAlgo.put(nomAlgoCourant, tempsTotalCourant/nbAlgos);
+			tempsMoyenParAlgo.put(nomAlgoCourant, tempsTotalCourant/nbAlgos);
 			tempsTotalCourant=0;
 			nbAlgos=0;
 		}
 	}
 	
+	//meme chose que runBatterie, mais les couples (algo, graphe) sont lances en parallele sur nbThreads threads.
+	//chaque couple utilise sa propre copie de l'algo (et donc sa propre instance de MVC),
+	//et les resultats sont ranges dans le meme ordre que runBatterie.
+	//unParCoeur : au plus un couple par coeur disponible, pour que deux couples ne se partagent pas un coeur pendant la mesure
+	//(java ne permet pas de fixer un thread sur un coeur, on limite donc le nombre de threads)
+	public void runBatterieParallele(int n, int nbThreads, boolean unParCoeur) {
+		if(unParCoeur)
+			nbThreads = Math.min(nbThreads, Runtime.getRuntime().availableProcessors());
+		System.out.println("///// LANCEMENT DE LA BATTERIE POUR LA VALEUR : "+n+" SUR "+nbThreads+" THREADS /////");
+		ExecutorService pool = Executors.newFixedThreadPool(nbThreads);
+		ArrayList<Future<Resultat>> cellules = new ArrayList<Future<Resultat>>();
+		final int echauffement = this.echauffement, repetitions = this.repetitions;
+		for(int i=0; i<mesAlgos.size();i++) {
+			final String nomAlgo = mesAlgos.get(i).getNom();
+			for(int j=0; j<mesGraphes.size();j++) {
+				final VertexCover algo = mesAlgos.get(i).copie();
+				//les collections de la JVM ne peuvent pas etre attribuees a un thread
+				algo.setMesureGC(nbThreads==1);
+				final Graphe graphe = mesGraphes.get(j);
+				cellules.add(pool.submit(() -> {
+					Resultat r = algo.mesurer(n, graphe, echauffement, repetitions);
+					r.setAlgo(nomAlgo);
+					return r;
+				}));
+			}
+		}
+		pool.shutdown();
+		
+		//recuperation des resultats dans l'ordre de soumission
+		for(int i=0; i<mesAlgos.size();i++) {
+			String nomAlgo = mesAlgos.get(i).getNom();
+			float tempsTotalCourant = 0;
+			for(int j=0; j<mesGraphes.size();j++) {
+				try {
+					Resultat r = cellules.get(i*mesGraphes.size()+j).get();
+					ajouterResultat(r);
+					tempsTotalCourant+=r.getTemps();
+				}
+				catch(InterruptedException | ExecutionException e) {
+					System.out.println(e);
+				}
+			}
+			tempsTotalParAlgo.put(nomAlgo, tempsTotalCourant);
+			tempsMoyenParAlgo.put(nomAlgo, tempsTotalCourant/mesGraphes.size());
+		}
+	}
+	
+	//meme chose que runBatterieParallele, mais sans garder les graphes ni les resultats en memoire :
+	//les graphes sont pris un par un dans le corpus (ou dans mesGraphes), chacun etant teste par tous les algos,
+	//et chaque resultat est ecrit dans le fichier de resultats des qu'il est obtenu, dans l'ordre des graphes.
+	//au plus 2*nbThreads graphes sont en cours a la fois ; seuls les agregats et les temps par algo sont gardes.
+	public void runBatterieFlux(int n, int nbThreads, boolean unParCoeur, String fichierResultats) {
+		PrintWriter writer;
+		try {
+			writer = GestionnaireDeFichiers.ouvrirResultats(fichierResultats);
+		}
+		catch(FileNotFoundException e) {
+			System.out.println(e);
+			return;
+		}
+		try {
+			flux(n, nbThreads, unParCoeur, writer, null);
+		}
+		finally {
+			writer.close();
+		}
+	}
+	
+	//meme chose que runBatterieFlux, mais les resultats sont ajoutes au magasin fichierMagasin (voir MagasinResultats),
+	//cree s'il n'existe pas : les cellules (graphe, algo) dont le magasin a deja le resultat pour ce corpus, ce n
+	//et la version de l'algo ne sont pas recalculees, si bien qu'une batterie interrompue reprend ou elle s'est arretee,
+	//et qu'une batterie relancee avec un nouvel algo ne calcule que celui-ci.
+	//les agregats comprennent les resultats deja presents dans le magasin.
+	public void runBatterieReprise(int n, int nbThreads, boolean unParCoeur, String fichierMagasin) {
+		try(MagasinResultats magasin = new MagasinResultats(fichierMagasin)) {
+			HashMap<String, String> versions = new HashMap<>();
+			for(VertexCover a : mesAlgos)
+				versions.put(a.getNom(), a.getVersion());
+			String corpus = getNomCorpus().replace(',', ';');
+			int[] repris = new int[1];
+			magasin.lire((cle, r) -> {
+				if(cle[0].equals(corpus) && Integer.parseInt(cle[2])==n && cle[3].equals(versions.get(r.getAlgo()))) {
+					agreger(r);
+					repris[0]++;
+				}
+			});
+			if(repris[0]>0)
+				System.out.println(repris[0]+" resultats repris de "+fichierMagasin);
+			flux(n, nbThreads, unParCoeur, null, magasin);
+		}
+		catch(IOException e) {
+			System.out.println(e);
+		}
+	}
+	
+	//nom du corpus dans les cles du magasin : son chemin pour un CorpusGraphes
+	public String getNomCorpus() {
+		if(nomCorpus!=null)
+			return nomCorpus;
+		return corpus instanceof CorpusGraphes ? ((CorpusGraphes) corpus).getChemin() : "graphes";
+	}
+	
+	//a donner quand les graphes ne viennent pas d'un CorpusGraphes, pour que les cles du magasin les identifient
+	public void setNomCorpus(String nom) {
+		nomCorpus=nom;
+	}
+	
+	//une cellule soumise par flux() : le resultat a venir et sa cle
+	private static class Cellule {
+		Future<Resultat> resultat;
+		int graphe;
+		String version;
+		Cellule(Future<Resultat> resultat, int graphe, String version) {
+			this.resultat=resultat;
+			this.graphe=graphe;
+			this.version=version;
+		}
+	}
+	
+	//coeur de runBatterieFlux et runBatterieReprise : les resultats sont ecrits dans writer ou dans magasin
+	private void flux(int n, int nbThreads, boolean unParCoeur, PrintWriter writer, MagasinResultats magasin) {
+		if(unParCoeur)
+			nbThreads = Math.min(nbThreads, Runtime.getRuntime().availableProcessors());
+		System.out.println("///// LANCEMENT DE LA BATTERIE POUR LA VALEUR : "+n+" SUR "+nbThreads+" THREADS /////");
+		ExecutorService pool = Executors.newFixedThreadPool(nbThreads);
+		//cellules soumises et pas encore ecrites, dans l'ordre de soumission
+		ArrayDeque<Cellule> enCours = new ArrayDeque<Cellule>();
+		int maxEnCours = 2*nbThreads*mesAlgos.size();
+		HashMap<String, Float> tempsParAlgo = new HashMap<>();
+		HashMap<String, Integer> nbParAlgo = new HashMap<>();
+		final int echauffement = this.echauffement, repetitions = this.repetitions;
+		String nomCorpus = getNomCorpus();
+		int sautees = 0;
+		Iterator<Graphe> graphes = (corpus!=null ? corpus : mesGraphes).iterator();
+		try {
+			for(int j=0; graphes.hasNext(); j++) {
+				final Graphe graphe = graphes.next();
+				for(int i=0; i<mesAlgos.size();i++) {
+					final String nomAlgo = mesAlgos.get(i).getNom();
+					String version = mesAlgos.get(i).getVersion();
+					if(magasin!=null && magasin.contient(MagasinResultats.cle(nomCorpus.replace(',', ';'), j, n, version, nomAlgo))) {
+						sautees++;
+						continue;
+					}
+					final VertexCover algo = mesAlgos.get(i).copie();
+					algo.setMesureGC(nbThreads==1);
+					enCours.add(new Cellule(pool.submit(() -> {
+						Resultat r = algo.mesurer(n, graphe, echauffement, repetitions);
+						r.setAlgo(nomAlgo);
+						return r;
+					}), j, version));
+				}
+				while(enCours.size()>=maxEnCours)
+					ecrireCellule(enCours.poll(), n, writer, magasin, tempsParAlgo, nbParAlgo);
+			}
+			while(!enCours.isEmpty())
+				ecrireCellule(enCours.poll(), n, writer, magasin, tempsParAlgo, nbParAlgo);
+		}
+		finally {
+			if(graphes instanceof CorpusGraphes.Parcours)
+				((CorpusGraphes.Parcours) graphes).close();
+			pool.shutdownNow();
+		}
+		if(sautees>0)
+			System.out.println(sautees+" cellules deja calculees n'ont pas ete relancees");
+		for(String nomAlgo : nbParAlgo.keySet()) {
+			tempsTotalParAlgo.put(nomAlgo, tempsParAlgo.get(nomAlgo));
+			tempsMoyenParAlgo.put(nomAlgo, tempsParAlgo.get(nomAlgo)/nbParAlgo.get(nomAlgo));
+		}
+	}
+	
+	//attend le resultat d'une cellule de flux(), l'ecrit et l'ajoute aux agregats
+	private void ecrireCellule(Cellule cellule, int n, PrintWriter writer, MagasinResultats magasin,
+			HashMap<String, Float> tempsParAlgo, HashMap<String, Integer> nbParAlgo) {
+		try {
+			Resultat r = cellule.resultat.get();
+			if(writer!=null)
+				GestionnaireDeFichiers.ecrireResultat(writer, r);
+			if(magasin!=null)
+				magasin.ajouter(getNomCorpus(), cellule.graphe, n, cellule.version, r);
+			agreger(r);
+			tempsParAlgo.merge(r.getAlgo(), r.getTemps(), Float::sum);
+			nbParAlgo.merge(r.getAlgo(), 1, Integer::sum);
+		}
+		catch(InterruptedException | ExecutionException | IOException e) {
+			System.out.println(e);
+		}
+	}
+	
+	private void ajouterResultat(Resultat r) {
+		mesResultats.add(r);
+		agreger(r);
+	}
+	
+	private void agreger(Resultat r) {
+		TreeMap<Integer, Agregat> parTaille = agregats.get(r.getAlgo());
+		if(parTaille==null) {
+			parTaille = new TreeMap<Integer, Agregat>();
+			agregats.put(r.getAlgo(), parTaille);
+		}
+		Agregat a = parTaille.get(r.getTailleGraphe());
+		if(a==null) {
+			a = new Agregat(r.getAlgo(), r.getTailleGraphe());
+			parTaille.put(r.getTailleGraphe(), a);
+		}
+		a.ajouter(r);
+	}
+	
+	//affiche les agregats par algo et par taille de graphe
+	public void afficherAgregats() {
+		for(TreeMap<Integer, Agregat> parTaille : agregats.values())
+			for(Agregat a : parTaille.values())
+				System.out.println(a);
+	}
+	
 	//calcule le temps moyen total d'execution
 	public float moyenneTotale() {
 		float somme = 0;
@@ -86,5 +345,17 @@ public class BatterieTest {
 		return mesResultats;
 	}
 	
+	public HashMap<String, Float> getTempsTotalParAlgo(){
+		return tempsTotalParAlgo;
+	}
+	
+	public HashMap<String, Float> getTempsMoyenParAlgo(){
+		return tempsMoyenParAlgo;
+	}
+	
+	public HashMap<String, TreeMap<Integer, Agregat>> getAgregats(){
+		return agregats;
+	}
+	
 
 }
@@ -0,0 +1,157 @@
+package Batterie;
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+//les graphes d'un fichier (corpus binaire ou fichier texte de creerFichierErdosRenyi), lus a la demande.
+//chaque parcours ouvre le fichier et lance un thread qui decode les graphes a l'avance,
+//au plus "prechargement" graphes etant en memoire en plus de celui que l'on traite :
+//la memoire ne depend donc pas du nombre de graphes du fichier.
+//un parcours interrompu doit etre ferme (Parcours.close) pour arreter son thread.
+public class CorpusGraphes implements Iterable<Graphe> {
+
+	//marque la fin du fichier dans la file du thread de lecture
+	private static final Graphe FIN = new Graphe();
+
+	private String chemin;
+	private int prechargement;
+
+	public CorpusGraphes(String chemin) {
+		this(chemin, 2);
+	}
+
+	public CorpusGraphes(String chemin, int prechargement) {
+		if(prechargement<1)
+			throw new IllegalArgumentException("prechargement < 1");
+		this.chemin=chemin;
+		this.prechargement=prechargement;
+	}
+
+	public String getChemin() {
+		return chemin;
+	}
+
+	//nombre de graphes du fichier, -1 s'il n'est connu qu'apres l'avoir lu (fichier texte)
+	public int getNbGraphes() {
+		if(!LecteurCorpus.estCorpus(chemin))
+			return -1;
+		try(LecteurCorpus lecteur = new LecteurCorpus(chemin)) {
+			return lecteur.getNbGraphes();
+		}
+		catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public Parcours iterator() {
+		return new Parcours();
+	}
+
+	public Spliterator<Graphe> spliterator() {
+		int n = getNbGraphes();
+		int caracteristiques = Spliterator.ORDERED | Spliterator.NONNULL;
+		if(n<0)
+			return Spliterators.spliteratorUnknownSize(iterator(), caracteristiques);
+		return Spliterators.spliterator(iterator(), n, caracteristiques);
+	}
+
+	//les graphes sous forme de flux sequentiel ; le fermer arrete le thread de lecture
+	public Stream<Graphe> stream() {
+		Parcours parcours = iterator();
+		int caracteristiques = Spliterator.ORDERED | Spliterator.NONNULL;
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(parcours, caracteristiques), false)
+			.onClose(parcours::close);
+	}
+
+	//un parcours du fichier ; les erreurs de lecture sont relancees par next() en UncheckedIOException
+	public class Parcours implements Iterator<Graphe>, AutoCloseable {
+
+		private BlockingQueue<Graphe> file = new ArrayBlockingQueue<Graphe>(prechargement);
+		private Thread lecture;
+		private volatile IOException erreur;
+		private Graphe suivant;
+		private boolean ferme;
+
+		private Parcours() {
+			lecture = new Thread(this::lire, "lecture "+chemin);
+			lecture.setDaemon(true);
+			lecture.start();
+		}
+
+		//corps du thread de lecture : decode les graphes et les met dans la file, qui bloque quand elle est pleine
+		private void lire() {
+			try {
+				if(LecteurCorpus.estCorpus(chemin)) {
+					try(LecteurCorpus lecteur = new LecteurCorpus(chemin)) {
+						while(lecteur.suivant())
+							file.put(lecteur.lireGraphe());
+					}
+				}
+				else {
+					try(BufferedReader lecteur = new BufferedReader(new FileReader(chemin))) {
+						Graphe g;
+						while((g = GestionnaireDeFichiers.lireGrapheTexte(lecteur)) != null)
+							file.put(g);
+					}
+				}
+			}
+			catch(IOException e) {
+				erreur=e;
+			}
+			catch(RuntimeException e) {
+				//fichier texte mal forme
+				erreur=new IOException(chemin+" : graphe illisible", e);
+			}
+			catch(InterruptedException e) {
+				//parcours ferme
+				return;
+			}
+			try {
+				file.put(FIN);
+			}
+			catch(InterruptedException e) {
+			}
+		}
+
+		public boolean hasNext() {
+			if(ferme)
+				return false;
+			if(suivant==null) {
+				try {
+					suivant = file.take();
+				}
+				catch(InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException(e);
+				}
+			}
+			if(suivant==FIN && erreur!=null)
+				throw new UncheckedIOException(erreur);
+			return suivant!=FIN;
+		}
+
+		public Graphe next() {
+			if(!hasNext())
+				throw new NoSuchElementException();
+			Graphe g = suivant;
+			suivant=null;
+			return g;
+		}
+
+		//arrete le thread de lecture
+		public void close() {
+			ferme=true;
+			lecture.interrupt();
+			file.clear();
+		}
+	}
+}
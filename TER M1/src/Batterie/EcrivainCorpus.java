@@ -0,0 +1,178 @@
+package Batterie;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.util.Pair;
+
+//ecrit un corpus de graphes au format binaire, un graphe apres l'autre.
+//format (entiers en big endian) :
+// - en-tete : "AGVC", version (int), nombre de graphes (int, ecrit a la fermeture),
+//   puis depuis la version 2 la graine (long) et la probabilite (double) des graphes generes
+//   par GenerateurErdosRenyi, la probabilite etant NaN pour les autres corpus
+// - pour chaque graphe : taille de l'enregistrement en octets (int), puis en varints
+//   le nombre de sommets n, le nombre d'aretes m, et pour chaque sommet u de 0 a n-1
+//   le nombre de ses voisins v>u suivi des ecarts entre ces voisins (le premier par rapport a u).
+//la taille de l'enregistrement permet de sauter un graphe sans le decoder.
+public class EcrivainCorpus implements Closeable {
+
+	static final byte[] MAGIC = {'A', 'G', 'V', 'C'};
+	static final int VERSION = 2;
+	static final int TAILLE_ENTETE_V1 = 12;
+	static final int TAILLE_ENTETE = 28;
+
+	private FileChannel canal;
+	private ByteBuffer tampon = ByteBuffer.allocateDirect(1<<16);
+	private int nbGraphes;
+	//enregistrement du graphe courant, reutilise d'un graphe a l'autre
+	private byte[] enregistrement = new byte[1024];
+	private int taille;
+	private int[] debut = new int[0];
+	private int[] voisins = new int[0];
+
+	public EcrivainCorpus(String chemin) throws IOException {
+		this(chemin, 0, Double.NaN);
+	}
+
+	//corpus de graphes aleatoires G(n,p) generes a partir d'une graine (voir GenerateurErdosRenyi)
+	public EcrivainCorpus(String chemin, long graine, double probabilite) throws IOException {
+		canal = FileChannel.open(Paths.get(chemin), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		tampon.put(MAGIC).putInt(VERSION).putInt(0).putLong(graine).putDouble(probabilite);
+	}
+
+	public int getNbGraphes() {
+		return nbGraphes;
+	}
+
+	//ajoute un graphe de n sommets numerotes de 0 a n-1 ; l'arete i relie aretes[2i] et aretes[2i+1].
+	//les boucles et les aretes multiples sont ignorees
+	public void ajouter(int n, int[] aretes, int nbAretes) throws IOException {
+		//liste d'adjacence "superieure" : les voisins v>u de chaque sommet u
+		if(debut.length<n+1)
+			debut = new int[n+1];
+		Arrays.fill(debut, 0, n+1, 0);
+		for(int i=0; i<nbAretes; i++) {
+			int u=aretes[2*i], v=aretes[2*i+1];
+			if(u<0 || v<0 || u>=n || v>=n)
+				throw new IllegalArgumentException("arete "+u+"-"+v+" hors d'un graphe de "+n+" sommets");
+			if(u!=v)
+				debut[Math.min(u, v)+1]++;
+		}
+		for(int u=0; u<n; u++)
+			debut[u+1]+=debut[u];
+		if(voisins.length<debut[n])
+			voisins = new int[debut[n]];
+		int[] position = Arrays.copyOf(debut, n);
+		for(int i=0; i<nbAretes; i++) {
+			int u=aretes[2*i], v=aretes[2*i+1];
+			if(u!=v)
+				voisins[position[Math.min(u, v)]++]=Math.max(u, v);
+		}
+		int m=0;
+		for(int u=0; u<n; u++) {
+			Arrays.sort(voisins, debut[u], debut[u+1]);
+			m+=distincts(debut[u], debut[u+1]);
+		}
+
+		taille=0;
+		ecrireVarint(n);
+		ecrireVarint(m);
+		for(int u=0; u<n; u++) {
+			ecrireVarint(distincts(debut[u], debut[u+1]));
+			int precedent=u;
+			for(int p=debut[u]; p<debut[u+1]; p++)
+				if(voisins[p]!=precedent) {
+					ecrireVarint(voisins[p]-precedent);
+					precedent=voisins[p];
+				}
+		}
+
+		ecrire(ByteBuffer.allocate(4).putInt(0, taille));
+		ecrire(ByteBuffer.wrap(enregistrement, 0, taille));
+		nbGraphes++;
+	}
+
+	//ajoute un graphe JUNG ; ses sommets sont renumerotes de 0 a n-1 dans l'ordre de getVertices()
+	public <V, E> void ajouter(Graph<V, E> g) throws IOException {
+		HashMap<V, Integer> indices = new HashMap<V, Integer>();
+		for(V v : g.getVertices())
+			indices.put(v, indices.size());
+		Collection<E> edges = g.getEdges();
+		int[] aretes = new int[2*edges.size()];
+		int i=0;
+		for(E e : edges) {
+			Pair<V> extremites = g.getEndpoints(e);
+			aretes[i++]=indices.get(extremites.getFirst());
+			aretes[i++]=indices.get(extremites.getSecond());
+		}
+		ajouter(indices.size(), aretes, edges.size());
+	}
+
+	//Graphe donne un Graph sans parametres de type
+	@SuppressWarnings("unchecked")
+	public void ajouter(Graphe g) throws IOException {
+		ajouter(g.getGraphe());
+	}
+
+	//ecrit les donnees restantes et le nombre de graphes dans l'en-tete
+	public void close() throws IOException {
+		if(canal==null)
+			return;
+		try {
+			vider();
+			ByteBuffer nb = ByteBuffer.allocate(4).putInt(0, nbGraphes);
+			while(nb.hasRemaining())
+				canal.write(nb, 8+nb.position());
+		}
+		finally {
+			canal.close();
+			canal=null;
+		}
+	}
+
+	//nombre de valeurs distinctes de voisins[de..a[, qui est trie
+	private int distincts(int de, int a) {
+		int c=0;
+		for(int p=de; p<a; p++)
+			if(p==de || voisins[p]!=voisins[p-1])
+				c++;
+		return c;
+	}
+
+	//entier positif sur 7 bits par octet, le bit de poids fort indiquant la suite
+	private void ecrireVarint(int x) {
+		if(taille+5>enregistrement.length)
+			enregistrement = Arrays.copyOf(enregistrement, 2*enregistrement.length);
+		while((x & ~0x7F)!=0) {
+			enregistrement[taille++]=(byte)((x & 0x7F) | 0x80);
+			x>>>=7;
+		}
+		enregistrement[taille++]=(byte)x;
+	}
+
+	private void ecrire(ByteBuffer donnees) throws IOException {
+		while(donnees.hasRemaining()) {
+			if(!tampon.hasRemaining())
+				vider();
+			int n=Math.min(donnees.remaining(), tampon.remaining());
+			ByteBuffer morceau = donnees.duplicate();
+			morceau.limit(morceau.position()+n);
+			tampon.put(morceau);
+			donnees.position(donnees.position()+n);
+		}
+	}
+
+	private void vider() throws IOException {
+		tampon.flip();
+		while(tampon.hasRemaining())
+			canal.write(tampon);
+		tampon.clear();
+	}
+}
@@ -0,0 +1,104 @@
+package Batterie;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+//generation reproductible de corpus de graphes aleatoires G(n,p), sans passer par JUNG.
+//le graphe i d'un corpus est tire avec un SplittableRandom dont la graine ne depend que de la graine
+//du corpus et de i (graineGraphe), la graine etant ecrite dans l'en-tete du corpus :
+//n'importe quel graphe d'un corpus peut donc etre regenere seul (regenerer).
+//les aretes sont tirees par sauts geometriques (Batagelj et Brandes, "Efficient generation of large
+//random networks", 2005) : le nombre de paires sautees avant la prochaine arete suit une loi
+//geometrique de parametre p, d'ou un temps en O(n+m) au lieu de O(n^2).
+public class GenerateurErdosRenyi {
+
+	//nombre de graphes generes en parallele avant de les ecrire, par thread
+	private static final int LOT_PAR_THREAD = 4;
+
+	//graine du graphe i d'un corpus
+	public static long graineGraphe(long graine, int i) {
+		return new SplittableRandom(graine+i).nextLong();
+	}
+
+	//aretes d'un graphe G(n,p) : l'arete i relie aretes[2i] et aretes[2i+1] (tableau de longueur 2m)
+	public static int[] aretes(int n, double p, SplittableRandom r) {
+		if(p<=0 || n<2)
+			return new int[0];
+		int[] aretes = new int[(int)Math.min(Integer.MAX_VALUE-8, 2*(long)(p*n*(n-1)/2*1.1+16))];
+		int m=0;
+		if(p>=1) {
+			aretes = new int[n*(n-1)];
+			for(int v=1; v<n; v++)
+				for(int w=0; w<v; w++) {
+					aretes[m++]=w;
+					aretes[m++]=v;
+				}
+			return aretes;
+		}
+		//les paires (w,v), w<v, sont parcourues dans l'ordre lexicographique de (v,w)
+		double lp = Math.log(1-p);
+		int v=1;
+		long w=-1;
+		while(v<n) {
+			w+=1+(long)Math.floor(Math.log(1-r.nextDouble())/lp);
+			while(w>=v && v<n) {
+				w-=v;
+				v++;
+			}
+			if(v<n) {
+				if(m+2>aretes.length)
+					aretes = Arrays.copyOf(aretes, 2*aretes.length);
+				aretes[m++]=(int)w;
+				aretes[m++]=v;
+			}
+		}
+		return Arrays.copyOf(aretes, m);
+	}
+
+	//ecrit un corpus de nbGraphes graphes G(nbSommets, p) ; les graphes sont generes en parallele
+	//(pool commun de fork/join) par lots, puis ecrits dans l'ordre, si bien que le fichier ne depend
+	//que de la graine
+	public static void creerCorpus(String chemin, int nbGraphes, int nbSommets, double p, long graine) throws IOException {
+		int lot = LOT_PAR_THREAD*Runtime.getRuntime().availableProcessors();
+		try(EcrivainCorpus ecrivain = new EcrivainCorpus(chemin, graine, p)) {
+			for(int debut=0; debut<nbGraphes; debut+=lot) {
+				int[][] graphes = IntStream.range(debut, Math.min(nbGraphes, debut+lot)).parallel()
+					.mapToObj(i -> aretes(nbSommets, p, new SplittableRandom(graineGraphe(graine, i))))
+					.toArray(int[][]::new);
+				for(int[] a : graphes)
+					ecrivain.ajouter(nbSommets, a, a.length/2);
+			}
+		}
+	}
+
+	//regenere le graphe i d'un corpus cree par creerCorpus, identique a celui que donne
+	//LecteurCorpus.lireGraphe (memes aretes, dans le meme ordre)
+	public static Graphe regenerer(String chemin, int i) throws IOException {
+		try(LecteurCorpus lecteur = new LecteurCorpus(chemin)) {
+			if(!lecteur.estGenere())
+				throw new IOException(chemin+" n'a pas ete genere par GenerateurErdosRenyi");
+			if(i<0 || i>=lecteur.getNbGraphes())
+				throw new IndexOutOfBoundsException("graphe "+i+" d'un corpus de "+lecteur.getNbGraphes()+" graphes");
+			for(int j=0; j<i; j++)
+				lecteur.sauter();
+			lecteur.suivant();
+			return regenerer(lecteur.getGraine(), lecteur.getProbabilite(), lecteur.getNbSommets(), i);
+		}
+	}
+	
+	//regenere le graphe i de n sommets d'un corpus de graine et de probabilite donnees, sans le fichier
+	public static Graphe regenerer(long graine, double p, int n, int i) {
+		int[] aretes = aretes(n, p, new SplittableRandom(graineGraphe(graine, i)));
+		//le corpus range les aretes par plus petite extremite, puis par plus grande
+		long[] cles = new long[aretes.length/2];
+		for(int j=0; j<cles.length; j++)
+			cles[j]=(long)aretes[2*j]*n+aretes[2*j+1];
+		Arrays.sort(cles);
+		for(int j=0; j<cles.length; j++) {
+			aretes[2*j]=(int)(cles[j]/n);
+			aretes[2*j+1]=(int)(cles[j]%n);
+		}
+		return LecteurCorpus.graphe(n, aretes, cles.length);
+	}
+}
@@ -6,8 +6,12 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.StringTokenizer;
+import java.util.TreeMap;
 
 import javax.swing.plaf.synth.SynthSeparatorUI;
 
@@ -46,8 +50,10 @@ public class GestionnaireDeFichiers {
 	
 	//rcupere un ensemble de graphes  partir d'un fichier.txt, les instancie et les retourne
 	public static ArrayList<Graphe> recupererFichierGraphes(String chemin) {
+	    //les corpus binaires se lisent sans analyse de texte
+	    if(LecteurCorpus.estCorpus(chemin))
+	    	return recupererCorpus(chemin);
 	    BufferedReader lecteurAvecBuffer = null;
-	    String ligne;
 	    ArrayList<Graphe> mesGraphes = new ArrayList<>();
 	    try
 	    {
@@ -58,29 +64,9 @@ public class GestionnaireDeFichiers {
 	    	System.out.println("Erreur d'ouverture");
 	    }
 	    try {
-			while ((ligne = lecteurAvecBuffer.readLine()) != null) {
-				Graph jungGraphe = new UndirectedSparseGraph<Integer, String>();
-				String vertices = ligne.substring(9, ligne.length());
-				String[] verticesArray = vertices.split(",");
-				for(int i=0; i<verticesArray.length;i++) {
-					jungGraphe.addVertex(Integer.parseInt(verticesArray[i]));
-				}
-				
-				ligne = lecteurAvecBuffer.readLine();
-				String edges = ligne.substring(6, ligne.length());
-				String[] edgesArray = edges.split(" ");
-				for(int i=0; i<edgesArray.length;i++) {
-					String[] currentString =edgesArray[i].substring(1, edgesArray[i].length()-1).split("\\[");
-					String title = currentString[0];
-					String s1 = currentString[1].split(",")[0];
-					String s2 = currentString[1].split(",")[1];
-					jungGraphe.addEdge(title, Integer.parseInt(s1),Integer.parseInt(s2));
-				}
-				Graphe g = new Graphe();
-				g.setGraphe(jungGraphe);
+			Graphe g;
+			while ((g = lireGrapheTexte(lecteurAvecBuffer)) != null) {
 				mesGraphes.add(g);
-				
-				
 			}	
 	    } catch (IOException e) {
 			e.printStackTrace();
@@ -95,15 +81,156 @@ public class GestionnaireDeFichiers {
 		
 	}
 	
+	//genere un ensemble de graphes avec la methode ErdosRenyi
+	//et les stocke dans un corpus binaire (voir EcrivainCorpus), avec une graine tiree au hasard
+	public static void creerCorpusErdosRenyi(String titreFichier, int nbGraphes, int nbSommets, double probability) {
+		creerCorpusErdosRenyi(titreFichier, nbGraphes, nbSommets, probability, new SplittableRandom().nextLong());
+	}
+	
+	//meme chose avec une graine donnee : le corpus ne depend que de la graine, qui est ecrite dans son en-tete
+	//(voir GenerateurErdosRenyi)
+	public static void creerCorpusErdosRenyi(String titreFichier, int nbGraphes, int nbSommets, double probability, long graine) {
+		try {
+			GenerateurErdosRenyi.creerCorpus("mesGraphes/ErdosRenyi/"+titreFichier, nbGraphes, nbSommets, probability, graine);
+			System.out.println("Le corpus "+titreFichier+" a ete cree correctement (graine "+graine+").");
+			System.out.println(nbGraphes+" graphes de taille "+nbSommets+" ont ete generes.");
+		}
+		catch(IOException e) {
+			System.out.println(e);
+		}
+	}
+	
+	//recupere les graphes d'un corpus binaire, un par un
+	public static ArrayList<Graphe> recupererCorpus(String chemin) {
+		ArrayList<Graphe> mesGraphes = new ArrayList<>();
+		try(LecteurCorpus lecteur = new LecteurCorpus(chemin)) {
+			mesGraphes.ensureCapacity(lecteur.getNbGraphes());
+			while(lecteur.suivant())
+				mesGraphes.add(lecteur.lireGraphe());
+		}
+		catch(IOException e) {
+			System.out.println(e);
+		}
+		return mesGraphes;
+	}
+	
+	//lit le graphe suivant d'un fichier texte de creerFichierErdosRenyi (deux lignes "Vertices:" et "Edges:"),
+	//null a la fin du fichier
+	static Graphe lireGrapheTexte(BufferedReader lecteurAvecBuffer) throws IOException {
+		String ligne = lecteurAvecBuffer.readLine();
+		if(ligne == null)
+			return null;
+		Graph jungGraphe = new UndirectedSparseGraph<Integer, String>();
+		String vertices = ligne.substring(9, ligne.length());
+		String[] verticesArray = vertices.split(",");
+		for(int i=0; i<verticesArray.length;i++) {
+			jungGraphe.addVertex(Integer.parseInt(verticesArray[i]));
+		}
+		
+		ligne = lecteurAvecBuffer.readLine();
+		String edges = ligne.substring(6, ligne.length());
+		String[] edgesArray = edges.split(" ");
+		for(int i=0; i<edgesArray.length;i++) {
+			String[] currentString =edgesArray[i].substring(1, edgesArray[i].length()-1).split("\\[");
+			String title = currentString[0];
+			String s1 = currentString[1].split(",")[0];
+			String s2 = currentString[1].split(",")[1];
+			jungGraphe.addEdge(title, Integer.parseInt(s1),Integer.parseInt(s2));
+		}
+		Graphe g = new Graphe();
+		g.setGraphe(jungGraphe);
+		return g;
+	}
+	
+	//convertit un fichier texte de creerFichierErdosRenyi en corpus binaire.
+	//les lignes sont parcourues caractere par caractere, sans creer de chaine par arete ;
+	//les sommets sont renumerotes de 0 a n-1 dans l'ordre de la ligne "Vertices:"
+	public static void convertirTexteEnCorpus(String source, String destination) {
+		try(BufferedReader lecteur = new BufferedReader(new FileReader(source));
+				EcrivainCorpus ecrivain = new EcrivainCorpus(destination)) {
+			String sommets;
+			int[] indices = new int[0];
+			int[] aretes = new int[0];
+			while((sommets = lecteur.readLine()) != null) {
+				String edges = lecteur.readLine();
+				if(!sommets.startsWith("Vertices:") || edges==null || !edges.startsWith("Edges:"))
+					throw new IOException(source+" : graphe "+ecrivain.getNbGraphes()+" mal forme");
+				//indice de chaque sommet, par etiquette
+				int n=0;
+				for(int p="Vertices:".length(); p<sommets.length(); p++) {
+					int etiquette=0;
+					for(; p<sommets.length() && sommets.charAt(p)!=','; p++)
+						etiquette=10*etiquette+sommets.charAt(p)-'0';
+					if(etiquette>=indices.length)
+						indices = Arrays.copyOf(indices, Math.max(etiquette+1, 2*indices.length));
+					indices[etiquette]=n++;
+				}
+				//chaque arete est de la forme titre[s1,s2]
+				int m=0;
+				for(int p=edges.indexOf('['); p>=0; p=edges.indexOf('[', p)) {
+					int s1=0, s2=0;
+					for(p++; edges.charAt(p)!=','; p++)
+						s1=10*s1+edges.charAt(p)-'0';
+					for(p++; edges.charAt(p)!=']'; p++)
+						s2=10*s2+edges.charAt(p)-'0';
+					if(2*m+2>aretes.length)
+						aretes = Arrays.copyOf(aretes, Math.max(64, 2*aretes.length));
+					aretes[2*m]=indices[s1];
+					aretes[2*m+1]=indices[s2];
+					m++;
+				}
+				ecrivain.ajouter(n, aretes, m);
+			}
+			System.out.println(ecrivain.getNbGraphes()+" graphes convertis dans "+destination);
+		}
+		catch(IOException e) {
+			System.out.println(e);
+		}
+	}
+	
+	//convertit des fichiers .net (format pajek, un graphe par fichier) en un corpus binaire.
+	//comme readNet de la classe Import, les sommets sont les lignes avant "*edgeslist", et chaque ligne
+	//suivante donne un sommet (numerote a partir de 1) suivi de ses voisins
+	public static void convertirNetEnCorpus(String destination, String... sources) {
+		try(EcrivainCorpus ecrivain = new EcrivainCorpus(destination)) {
+			int[] aretes = new int[64];
+			for(String source : sources) {
+				try(BufferedReader lecteur = new BufferedReader(new FileReader(source))) {
+					String ligne = lecteur.readLine();
+					int n=0;
+					while((ligne = lecteur.readLine()) != null && !ligne.trim().equals("*edgeslist"))
+						if(!ligne.trim().isEmpty())
+							n++;
+					int m=0;
+					while((ligne = lecteur.readLine()) != null) {
+						StringTokenizer tok = new StringTokenizer(ligne, " ");
+						if(!tok.hasMoreTokens())
+							continue;
+						int s=Integer.parseInt(tok.nextToken())-1;
+						while(tok.hasMoreTokens()) {
+							if(2*m+2>aretes.length)
+								aretes = Arrays.copyOf(aretes, 2*aretes.length);
+							aretes[2*m]=s;
+							aretes[2*m+1]=Integer.parseInt(tok.nextToken())-1;
+							m++;
+						}
+					}
+					ecrivain.ajouter(n, aretes, m);
+				}
+			}
+			System.out.println(ecrivain.getNbGraphes()+" graphes convertis dans "+destination);
+		}
+		catch(IOException | RuntimeException e) {
+			System.out.println(e);
+		}
+	}
+	
 	//crit un fichier de rsultat 
 	public static void creerResultat(String titreFichier, ArrayList<Resultat> mesResultats) {
 		try {
-			Resultat resCourant;
-			PrintWriter writer = new PrintWriter("Resultats/"+titreFichier);
-			writer.println("Algorithme utilis, Rsultat, Temps d'xcution (en millisecondes)");
+			PrintWriter writer = ouvrirResultats(titreFichier);
 			for(int i=0; i<mesResultats.size();i++) {
-				resCourant=mesResultats.get(i);
-				writer.println(resCourant.getAlgo()+","+resCourant.getRep()+","+ resCourant.getTemps());
+				ecrireResultat(writer, mesResultats.get(i));
 			}
 
 			writer.close();
@@ -114,6 +241,47 @@ public class GestionnaireDeFichiers {
 		}		
 	}
 	
+	//en-tete des fichiers de resultats
+	public static final String ENTETE_RESULTATS = "Algorithme utilis, Rsultat, Temps d'xcution (en millisecondes), Taille de la couverture, Nombre de sommets, Repetitions, Min, Mediane, P90, P99, Ecart type, Temps CPU, Octets alloues, Temps GC JVM, Compteurs";
+	
+	//ouvre un fichier de resultats et ecrit son en-tete ; les resultats y sont ensuite ecrits un par un
+	//avec ecrireResultat, ce qui permet a une batterie de les ecrire au fur et a mesure
+	public static PrintWriter ouvrirResultats(String titreFichier) throws FileNotFoundException {
+		PrintWriter writer = new PrintWriter("Resultats/"+titreFichier);
+		writer.println(ENTETE_RESULTATS);
+		return writer;
+	}
+	
+	//ecrit la ligne d'un resultat
+	public static void ecrireResultat(PrintWriter writer, Resultat resCourant) {
+		writer.println(ligneResultat(resCourant));
+	}
+	
+	//ligne d'un resultat dans les fichiers de resultats
+	public static String ligneResultat(Resultat resCourant) {
+		return resCourant.getAlgo()+","+resCourant.getRepTexte()+","+ resCourant.getTemps()+","+resCourant.getTaille()
+			+","+resCourant.getTailleGraphe()+","+resCourant.getRepetitions()+","+resCourant.getTempsMin()+","+resCourant.getTempsMedian()
+			+","+resCourant.getTempsP90()+","+resCourant.getTempsP99()+","+resCourant.getEcartType()
+			+","+resCourant.getTempsCPU()+","+resCourant.getAllocation()+","+resCourant.getTempsGC()+","+resCourant.getCompteursTexte();
+	}
+	
+	//crit un fichier des agregats par algo et par taille de graphe
+	public static void creerAgregats(String titreFichier, HashMap<String, TreeMap<Integer, Agregat>> agregats) {
+		try {
+			PrintWriter writer = new PrintWriter("Resultats/"+titreFichier);
+			writer.println("Algorithme utilis, Nombre de sommets, Nombre de graphes, Timeouts, Temps moyen, Temps median, Temps max, Temps CPU moyen, Octets alloues moyens, Temps GC JVM moyen, Compteurs moyens");
+			for(TreeMap<Integer, Agregat> parTaille : agregats.values())
+				for(Agregat a : parTaille.values())
+					writer.println(a.getAlgo()+","+a.getTailleGraphe()+","+a.getNbResultats()+","+a.getNbTimeouts()
+						+","+a.getTempsMoyen()+","+a.getTempsMedian()+","+a.getTempsMax()
+						+","+a.getTempsCPUMoyen()+","+a.getAllocationMoyenne()+","+a.getTempsGCMoyen()+","+a.getCompteursMoyensTexte());
+			writer.close();
+		}
+		catch(Exception e) {
+			System.out.println(e);
+		}
+	}
+	
 	//affiche courbe
 	public static void afficheCourbe(String chemin) {
 		System.out.println("affichage des temps d'xcutions");
@@ -154,5 +322,18 @@ public class GestionnaireDeFichiers {
 
 	}
 	
+	//rapport sans affichage d'un fichier de Resultats (resultats, magasin ou matrice de balayage) :
+	//agregats et courbes en SVG et en PNG, ecrits a cote du fichier (voir Rapport)
+	public static void exporterRapport(String titreFichier) {
+		try {
+			Rapport rapport = new Rapport();
+			rapport.lire("Resultats/"+titreFichier);
+			rapport.exporter("Resultats/"+titreFichier.replaceAll("\\.csv$", "")+"-rapport");
+			System.out.println("Rapport de "+titreFichier+" ecrit ("+rapport.getNbLignes()+" lignes).");
+		}
+		catch(Exception e) {
+			System.out.println(e);
+		}
+	}
 
 }
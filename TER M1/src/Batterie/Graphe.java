@@ -9,6 +9,8 @@ import javax.swing.JFrame;
 
 import org.apache.commons.collections15.Factory;
 
+import agape.tools.CompactGraph;
+
 import edu.uci.ics.jung.algorithms.generators.random.ErdosRenyiGenerator;
 import edu.uci.ics.jung.algorithms.layout.CircleLayout;
 import edu.uci.ics.jung.algorithms.layout.Layout;
@@ -24,6 +26,9 @@ public class Graphe{
 	
 	Graph myGraphe;
 	Factory<UndirectedGraph<Integer,String>> grapheFactory;
+	//representation compacte du graphe, construite au premier appel de getGrapheCompact
+	//puis partagee en lecture seule par tous les algos et tous les threads
+	private volatile CompactGraph grapheCompact;
 	
 	//constructeur utile pour instancier un Graphe  partir d'un fichier texte
 	public Graphe() {
@@ -42,6 +47,22 @@ public class Graphe{
 	
 	public void setGraphe(Graph g) {
 		myGraphe=g;
+		grapheCompact=null;
+	}
+	
+	//representation compacte (sommets numerotes, adjacence en CSR) du graphe, sur laquelle travaillent
+	//les algos de MVC : elle n'est construite qu'une fois par graphe, et non a chaque appel d'un algo.
+	//le graphe JUNG ne doit plus etre modifie ensuite (sauf par setGraphe)
+	public CompactGraph getGrapheCompact() {
+		CompactGraph c = grapheCompact;
+		if(c==null) {
+			synchronized(this) {
+				if(grapheCompact==null)
+					grapheCompact = CompactGraph.fromGraph(myGraphe);
+				c = grapheCompact;
+			}
+		}
+		return c;
 	}
 	
 
@@ -0,0 +1,211 @@
+package Batterie;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.UndirectedSparseGraph;
+
+//lit un corpus ecrit par EcrivainCorpus, un graphe apres l'autre.
+//le fichier est projete en memoire (NIO) par fenetres, si bien qu'un gros corpus n'est jamais
+//charge en entier : suivant() decode le graphe courant dans des tableaux reutilises,
+//et lireGraphe() en construit un graphe JUNG seulement si on le demande.
+//usage : while(lecteur.suivant()) { ... lecteur.getAretes() ou lecteur.lireGraphe() ... }
+public class LecteurCorpus implements Closeable {
+
+	//taille des fenetres projetees en memoire
+	private static final long FENETRE = 64L<<20;
+
+	private FileChannel canal;
+	private long tailleFichier;
+	private MappedByteBuffer fenetre;
+	private long debutFenetre;
+	//position dans le fichier du prochain graphe
+	private long position;
+	private int nbGraphes;
+	private int nbLus;
+	//graine et probabilite des graphes generes par GenerateurErdosRenyi, probabilite NaN sinon
+	private long graine;
+	private double probabilite = Double.NaN;
+	//graphe courant
+	private int nbSommets;
+	private int nbAretes;
+	private int[] aretes = new int[0];
+
+	public LecteurCorpus(String chemin) throws IOException {
+		canal = FileChannel.open(Paths.get(chemin), StandardOpenOption.READ);
+		try {
+			tailleFichier = canal.size();
+			if(tailleFichier<EcrivainCorpus.TAILLE_ENTETE_V1)
+				throw new IOException(chemin+" n'est pas un corpus binaire");
+			byte[] magic = new byte[EcrivainCorpus.MAGIC.length];
+			projeter(0, EcrivainCorpus.TAILLE_ENTETE_V1);
+			fenetre.get(magic);
+			if(!Arrays.equals(magic, EcrivainCorpus.MAGIC))
+				throw new IOException(chemin+" n'est pas un corpus binaire");
+			int version = fenetre.getInt();
+			if(version<1 || version>EcrivainCorpus.VERSION)
+				throw new IOException(chemin+" : version "+version+" du corpus non supportee");
+			nbGraphes = fenetre.getInt();
+			position = EcrivainCorpus.TAILLE_ENTETE_V1;
+			if(version>=2) {
+				if(tailleFichier<EcrivainCorpus.TAILLE_ENTETE)
+					throw new IOException(chemin+" : en-tete tronque");
+				projeter(position, EcrivainCorpus.TAILLE_ENTETE-position);
+				graine = fenetre.getLong();
+				probabilite = fenetre.getDouble();
+				position = EcrivainCorpus.TAILLE_ENTETE;
+			}
+		}
+		catch(IOException e) {
+			canal.close();
+			throw e;
+		}
+	}
+
+	//vrai si le fichier commence par l'en-tete d'un corpus binaire
+	public static boolean estCorpus(String chemin) {
+		byte[] magic = new byte[EcrivainCorpus.MAGIC.length];
+		try(InputStream in = Files.newInputStream(Paths.get(chemin))) {
+			return in.read(magic)==magic.length && Arrays.equals(magic, EcrivainCorpus.MAGIC);
+		}
+		catch(IOException e) {
+			return false;
+		}
+	}
+
+	public int getNbGraphes() {
+		return nbGraphes;
+	}
+
+	public long getGraine() {
+		return graine;
+	}
+
+	public double getProbabilite() {
+		return probabilite;
+	}
+
+	//vrai si les graphes ont ete generes par GenerateurErdosRenyi, et peuvent donc etre regeneres
+	public boolean estGenere() {
+		return !Double.isNaN(probabilite);
+	}
+
+	//nombre de graphes lus ou sautes
+	public int getNbLus() {
+		return nbLus;
+	}
+
+	//decode le graphe suivant ; faux a la fin du corpus
+	public boolean suivant() throws IOException {
+		if(!enregistrementSuivant())
+			return false;
+		nbSommets = lireVarint();
+		nbAretes = lireVarint();
+		if(aretes.length<2*nbAretes)
+			aretes = new int[2*nbAretes];
+		int i=0;
+		for(int u=0; u<nbSommets; u++) {
+			int d=lireVarint();
+			int v=u;
+			for(int j=0; j<d; j++) {
+				v+=lireVarint();
+				if(i==2*nbAretes)
+					throw new IOException("graphe "+(nbLus-1)+" du corpus corrompu");
+				aretes[i++]=u;
+				aretes[i++]=v;
+			}
+		}
+		if(i!=2*nbAretes)
+			throw new IOException("graphe "+(nbLus-1)+" du corpus corrompu");
+		return true;
+	}
+
+	//passe le graphe suivant sans le decoder ; faux a la fin du corpus
+	public boolean sauter() throws IOException {
+		return enregistrementSuivant();
+	}
+
+	public int getNbSommets() {
+		return nbSommets;
+	}
+
+	public int getNbAretes() {
+		return nbAretes;
+	}
+
+	//aretes du graphe courant : l'arete i relie aretes[2i]<aretes[2i+1].
+	//le tableau est reutilise par l'appel suivant a suivant()
+	public int[] getAretes() {
+		return aretes;
+	}
+
+	//graphe JUNG du graphe courant, aux sommets 0..n-1 et aux aretes "E1", "E2", ...
+	public Graphe lireGraphe() {
+		return graphe(nbSommets, aretes, nbAretes);
+	}
+
+	//graphe JUNG aux sommets 0..n-1 dont l'arete "E"+(i+1) relie aretes[2i] et aretes[2i+1]
+	static Graphe graphe(int n, int[] aretes, int m) {
+		Graph<Integer, String> jungGraphe = new UndirectedSparseGraph<Integer, String>();
+		for(int v=0; v<n; v++)
+			jungGraphe.addVertex(v);
+		for(int i=0; i<m; i++)
+			jungGraphe.addEdge("E"+(i+1), aretes[2*i], aretes[2*i+1]);
+		Graphe g = new Graphe();
+		g.setGraphe(jungGraphe);
+		return g;
+	}
+
+	public void close() throws IOException {
+		fenetre=null;
+		canal.close();
+	}
+
+	//place la fenetre sur l'enregistrement du graphe suivant, et position apres lui
+	private boolean enregistrementSuivant() throws IOException {
+		if(nbLus>=nbGraphes || position+4>tailleFichier)
+			return false;
+		assurer(position, 4);
+		int taille = fenetre.getInt((int)(position-debutFenetre));
+		if(taille<0 || position+4+taille>tailleFichier)
+			throw new IOException("graphe "+nbLus+" du corpus tronque");
+		assurer(position, 4+taille);
+		fenetre.position((int)(position+4-debutFenetre));
+		position+=4+taille;
+		nbLus++;
+		return true;
+	}
+
+	//projette une fenetre contenant les octets [debut, debut+longueur[ du fichier si besoin
+	private void assurer(long debut, long longueur) throws IOException {
+		if(fenetre!=null && debut>=debutFenetre && debut+longueur<=debutFenetre+fenetre.limit())
+			return;
+		projeter(debut, Math.max(longueur, FENETRE));
+	}
+
+	private void projeter(long debut, long longueur) throws IOException {
+		longueur = Math.min(longueur, tailleFichier-debut);
+		if(longueur>Integer.MAX_VALUE)
+			throw new IOException("graphe trop grand pour le corpus");
+		fenetre = canal.map(FileChannel.MapMode.READ_ONLY, debut, longueur);
+		debutFenetre = debut;
+	}
+
+	private int lireVarint() throws IOException {
+		int x=0;
+		for(int decalage=0; decalage<32; decalage+=7) {
+			byte b=fenetre.get();
+			x|=(b & 0x7F)<<decalage;
+			if(b>=0)
+				return x;
+		}
+		throw new IOException("graphe "+(nbLus-1)+" du corpus corrompu");
+	}
+}
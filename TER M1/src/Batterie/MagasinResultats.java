@@ -0,0 +1,168 @@
+package Batterie;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+//fichier de resultats en ajout seul, qui permet de reprendre une batterie interrompue.
+//chaque ligne est un resultat precede de sa cle : corpus, indice du graphe dans le corpus, k, version de l'algo
+//(les colonnes suivantes sont celles de GestionnaireDeFichiers.ecrireResultat, la premiere etant l'algo).
+//une ligne est ecrite des que la cellule est calculee : un resultat ecrit survit a l'arret du programme,
+//et les ecritures sont forcees sur le disque (fsync) par lots, pour survivre aussi a celui de la machine.
+//a l'ouverture, les cles deja presentes sont chargees, et une derniere ligne incomplete (arret pendant
+//une ecriture) est supprimee.
+public class MagasinResultats implements Closeable {
+
+	//nombre de resultats et temps (en millisecondes) au plus entre deux fsync
+	private static final int LOT_FSYNC = 32;
+	private static final long DELAI_FSYNC = 1000;
+	private static final int NB_COLONNES_CLE = 4;
+
+	private String chemin;
+	private FileChannel canal;
+	private HashSet<String> cles = new HashSet<String>();
+	private int nonForces;
+	private long dernierFsync = System.currentTimeMillis();
+
+	public MagasinResultats(String chemin) throws IOException {
+		this.chemin=chemin;
+		canal = FileChannel.open(Paths.get(chemin), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			long fin = parcourir((colonnes, r) -> cles.add(cle(colonnes[0], Integer.parseInt(colonnes[1]), Integer.parseInt(colonnes[2]), colonnes[3], r.getAlgo())));
+			if(fin<canal.size())
+				canal.truncate(fin);
+			canal.position(fin);
+			if(fin==0)
+				ecrire("Corpus,Graphe,k,Version,"+GestionnaireDeFichiers.ENTETE_RESULTATS+"\n");
+		}
+		catch(IOException | RuntimeException e) {
+			canal.close();
+			throw e;
+		}
+	}
+
+	//cle d'une cellule de batterie
+	public static String cle(String corpus, int graphe, int k, String version, String algo) {
+		return corpus+","+graphe+","+k+","+version+","+algo;
+	}
+
+	public synchronized boolean contient(String cle) {
+		return cles.contains(cle);
+	}
+
+	public synchronized int getNbResultats() {
+		return cles.size();
+	}
+
+	public String getChemin() {
+		return chemin;
+	}
+
+	//ajoute le resultat d'une cellule a la fin du fichier
+	public synchronized void ajouter(String corpus, int graphe, int k, String version, Resultat r) throws IOException {
+		corpus = corpus.replace(',', ';');
+		ecrire(corpus+","+graphe+","+k+","+version+","+GestionnaireDeFichiers.ligneResultat(r)+"\n");
+		cles.add(cle(corpus, graphe, k, version, r.getAlgo()));
+		nonForces++;
+		if(nonForces>=LOT_FSYNC || System.currentTimeMillis()-dernierFsync>=DELAI_FSYNC)
+			forcer();
+	}
+
+	//relit les resultats du fichier : la cle (corpus, graphe, k, version) et le resultat de chaque ligne
+	public synchronized void lire(BiConsumer<String[], Resultat> action) throws IOException {
+		parcourir(action);
+	}
+
+	public synchronized void close() throws IOException {
+		if(canal==null)
+			return;
+		try {
+			forcer();
+		}
+		finally {
+			canal.close();
+			canal=null;
+		}
+	}
+
+	private void forcer() throws IOException {
+		if(nonForces>0)
+			canal.force(false);
+		nonForces=0;
+		dernierFsync=System.currentTimeMillis();
+	}
+
+	private void ecrire(String ligne) throws IOException {
+		ByteBuffer octets = ByteBuffer.wrap(ligne.getBytes(StandardCharsets.UTF_8));
+		while(octets.hasRemaining())
+			canal.write(octets);
+	}
+
+	//lit les lignes completes du fichier depuis le debut ; retourne la position qui suit la derniere
+	private long parcourir(BiConsumer<String[], Resultat> action) throws IOException {
+		long position=canal.position();
+		canal.position(0);
+		long fin=0, lu=0;
+		InputStream in = new BufferedInputStream(Channels.newInputStream(canal));
+		ByteArrayOutputStream ligne = new ByteArrayOutputStream();
+		boolean entete=true;
+		int b;
+		while((b=in.read())>=0) {
+			lu++;
+			if(b!='\n') {
+				ligne.write(b);
+				continue;
+			}
+			fin=lu;
+			String texte = new String(ligne.toByteArray(), StandardCharsets.UTF_8);
+			ligne.reset();
+			if(entete) {
+				entete=false;
+				continue;
+			}
+			String[] colonnes = texte.split(",", -1);
+			if(colonnes.length<NB_COLONNES_CLE+15)
+				throw new IOException(chemin+" : ligne mal formee : "+texte);
+			action.accept(colonnes, resultat(colonnes, NB_COLONNES_CLE));
+		}
+		canal.position(position);
+		return fin;
+	}
+
+	//resultat ecrit par GestionnaireDeFichiers.ecrireResultat a partir de la colonne debut
+	private static Resultat resultat(String[] c, int debut) {
+		Resultat r = new Resultat();
+		r.setAlgo(c[debut]);
+		if(c[debut+1].equals("TIMEOUT"))
+			r.setTimeout(true);
+		else
+			r.setRep(Boolean.parseBoolean(c[debut+1]));
+		r.setTemps(Float.parseFloat(c[debut+2]));
+		r.setTaille(Integer.parseInt(c[debut+3]));
+		r.setTailleGraphe(Integer.parseInt(c[debut+4]));
+		r.setStatistiques(Integer.parseInt(c[debut+5]), Float.parseFloat(c[debut+6]), Float.parseFloat(c[debut+7]),
+			Float.parseFloat(c[debut+8]), Float.parseFloat(c[debut+9]), Float.parseFloat(c[debut+10]));
+		r.setTempsCPU(Float.parseFloat(c[debut+11]));
+		r.setAllocation(Long.parseLong(c[debut+12]));
+		r.setTempsGC(Float.parseFloat(c[debut+13]));
+		if(!c[debut+14].isEmpty()) {
+			TreeMap<String, Long> compteurs = new TreeMap<String, Long>();
+			for(String compteur : c[debut+14].split(";")) {
+				int egal = compteur.lastIndexOf('=');
+				compteurs.put(compteur.substring(0, egal), Long.parseLong(compteur.substring(egal+1)));
+			}
+			r.setCompteurs(compteurs);
+		}
+		return r;
+	}
+}
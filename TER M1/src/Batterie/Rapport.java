@@ -0,0 +1,304 @@
+package Batterie;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartUtilities;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.LogAxis;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.jfree.graphics2d.svg.SVGGraphics2D;
+import org.jfree.graphics2d.svg.SVGUtils;
+
+//rapport sans affichage sur un fichier de resultats : le fichier est lu une seule fois, ligne par ligne,
+//et les temps sont ranges par algo et par valeur de n, de p et de k dans des histogrammes a echelle
+//logarithmique, d'ou les quantiles a 1% pres avec une memoire qui ne depend pas du nombre de lignes.
+//les temps des TIMEOUT ne sont que des minorants : ils sont comptes mais pas ranges dans les histogrammes,
+//et un quantile qui tombe parmi eux est infini (censure) ; moyenne, min et max sont ceux des executions terminees.
+//les agregats sont ecrits en csv, et les courbes (temps median en echelle log en fonction de n, p ou k)
+//en SVG (JFreeSVG) ou en PNG, sans fenetre : le rapport fonctionne sur une machine sans ecran.
+//formats lus, reconnus a leur en-tete :
+// - resultats de GestionnaireDeFichiers.ouvrirResultats : n seulement
+// - magasin de MagasinResultats : n, k, et p si le corpus est un corpus genere encore present
+// - matrice de Balayage : n, p et k, chaque ligne comptant pour ses graphes avec son temps median
+public class Rapport {
+
+	//axes des courbes
+	public enum Axe { N, P, K }
+
+	private static final int LARGEUR = 900;
+	private static final int HAUTEUR = 600;
+
+	//temps d'un algo pour une valeur d'un axe
+	public static class Histogramme {
+		//les temps (en millisecondes) de [MIN*BASE^i, MIN*BASE^(i+1)[ vont dans la case i
+		private static final double MIN = 1e-6;
+		private static final double BASE = 1.01;
+		private static final int NB_CASES = (int)Math.ceil(Math.log(1e8/MIN)/Math.log(BASE))+1;
+
+		private long[] cases = new long[NB_CASES];
+		private long nb;
+		private long nbTimeouts;
+		private double somme;
+		private double min = Double.POSITIVE_INFINITY;
+		private double max = Double.NEGATIVE_INFINITY;
+
+		//fois executions, dont timeouts interrompues
+		void ajouter(double temps, long fois, long timeouts) {
+			nb+=fois;
+			nbTimeouts+=timeouts;
+			long terminees = fois-timeouts;
+			if(terminees<=0)
+				return;
+			int c = temps<=MIN ? 0 : (int)Math.min(NB_CASES-1, Math.log(temps/MIN)/Math.log(BASE));
+			cases[c]+=terminees;
+			somme+=temps*terminees;
+			min=Math.min(min, temps);
+			max=Math.max(max, temps);
+		}
+
+		public long getNb() {
+			return nb;
+		}
+
+		public long getNbTimeouts() {
+			return nbTimeouts;
+		}
+
+		//moyenne, min et max des executions terminees, NaN s'il n'y en a pas
+		public double getMoyenne() {
+			return nb==nbTimeouts ? Double.NaN : somme/(nb-nbTimeouts);
+		}
+
+		public double getMin() {
+			return nb==nbTimeouts ? Double.NaN : min;
+		}
+
+		public double getMax() {
+			return nb==nbTimeouts ? Double.NaN : max;
+		}
+
+		//quantile q (entre 0 et 1), au rang le plus proche, au milieu (geometrique) de sa case ;
+		//les TIMEOUT etant au-dessus de tous les temps, infini si le rang est parmi eux
+		public double getQuantile(double q) {
+			long rang = Math.max(1, (long)Math.ceil(q*nb));
+			long cumul = 0;
+			for(int c=0; c<NB_CASES; c++) {
+				cumul+=cases[c];
+				if(cumul>=rang)
+					return Math.min(max, Math.max(min, MIN*Math.pow(BASE, c+0.5)));
+			}
+			return Double.POSITIVE_INFINITY;
+		}
+	}
+
+	//par axe, par algo puis par valeur de l'axe
+	private HashMap<Axe, TreeMap<String, TreeMap<Double, Histogramme>>> histogrammes = new HashMap<>();
+	//probabilite des corpus du magasin, NaN si elle n'est pas connue
+	private HashMap<String, Double> probabilites = new HashMap<>();
+	private long nbLignes;
+
+	public Rapport() {
+		for(Axe a : Axe.values())
+			histogrammes.put(a, new TreeMap<String, TreeMap<Double, Histogramme>>());
+	}
+
+	public long getNbLignes() {
+		return nbLignes;
+	}
+
+	//histogrammes d'un axe : par algo puis par valeur
+	public TreeMap<String, TreeMap<Double, Histogramme>> getHistogrammes(Axe axe) {
+		return histogrammes.get(axe);
+	}
+
+	//lit un fichier de resultats, de magasin ou de balayage
+	public void lire(String chemin) throws IOException {
+		try(BufferedReader lecteur = new BufferedReader(new InputStreamReader(new FileInputStream(chemin), StandardCharsets.ISO_8859_1), 1<<16)) {
+			String entete = lecteur.readLine();
+			if(entete==null)
+				return;
+			String ligne;
+			if(entete.startsWith("Corpus,")) {
+				while((ligne = lecteur.readLine()) != null) {
+					String[] c = ligne.split(",", -1);
+					boolean timeout = c[5].equals("TIMEOUT");
+					//le magasin est en UTF-8 : seul le chemin du corpus peut avoir des accents
+					String corpus = new String(c[0].getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+					ajouter(c[4], Double.parseDouble(c[6]), 1, timeout ? 1 : 0, Integer.parseInt(c[8]), probabilite(corpus), Integer.parseInt(c[2]));
+				}
+			}
+			else if(entete.startsWith("Algorithme, Famille")) {
+				while((ligne = lecteur.readLine()) != null) {
+					String[] c = ligne.split(",", -1);
+					ajouter(c[0], Double.parseDouble(c[9]), Integer.parseInt(c[5]), Integer.parseInt(c[7]),
+						Integer.parseInt(c[2]), Double.parseDouble(c[3]), Integer.parseInt(c[4]));
+				}
+			}
+			else if(entete.startsWith("Algorithme")) {
+				while((ligne = lecteur.readLine()) != null) {
+					String[] c = ligne.split(",", -1);
+					boolean timeout = c[1].equals("TIMEOUT");
+					ajouter(c[0], Double.parseDouble(c[2]), 1, timeout ? 1 : 0, Integer.parseInt(c[4]), Double.NaN, -1);
+				}
+			}
+			else
+				throw new IOException(chemin+" : format de resultats inconnu");
+		}
+		catch(RuntimeException e) {
+			throw new IOException(chemin+" : ligne "+(nbLignes+2)+" mal formee", e);
+		}
+	}
+
+	//fois : nombre de graphes de la ligne ; p NaN et k -1 s'ils ne sont pas connus
+	private void ajouter(String algo, double temps, long fois, long timeouts, int n, double p, int k) {
+		nbLignes++;
+		histogramme(Axe.N, algo, n).ajouter(temps, fois, timeouts);
+		if(!Double.isNaN(p))
+			histogramme(Axe.P, algo, p).ajouter(temps, fois, timeouts);
+		if(k>=0)
+			histogramme(Axe.K, algo, k).ajouter(temps, fois, timeouts);
+	}
+
+	private Histogramme histogramme(Axe axe, String algo, double valeur) {
+		TreeMap<Double, Histogramme> parValeur = histogrammes.get(axe).get(algo);
+		if(parValeur==null) {
+			parValeur = new TreeMap<Double, Histogramme>();
+			histogrammes.get(axe).put(algo, parValeur);
+		}
+		Histogramme h = parValeur.get(valeur);
+		if(h==null) {
+			h = new Histogramme();
+			parValeur.put(valeur, h);
+		}
+		return h;
+	}
+
+	//probabilite ecrite dans l'en-tete d'un corpus genere, lue une fois par corpus
+	private double probabilite(String corpus) {
+		Double p = probabilites.get(corpus);
+		if(p==null) {
+			p = Double.NaN;
+			if(LecteurCorpus.estCorpus(corpus)) {
+				try(LecteurCorpus lecteur = new LecteurCorpus(corpus)) {
+					p = lecteur.getProbabilite();
+				}
+				catch(IOException e) {
+					System.out.println(e);
+				}
+			}
+			probabilites.put(corpus, p);
+		}
+		return p;
+	}
+
+	//ecrit les agregats de tous les axes au format csv
+	public void ecrireAgregats(String chemin) throws IOException {
+		try(PrintWriter writer = new PrintWriter(chemin)) {
+			writer.println("Algorithme, Axe, Valeur, Nombre, Timeouts, Moyenne des terminees, Min, Mediane, P90, P99, Max");
+			for(Axe axe : Axe.values())
+				for(Map.Entry<String, TreeMap<Double, Histogramme>> algo : histogrammes.get(axe).entrySet())
+					for(Map.Entry<Double, Histogramme> e : algo.getValue().entrySet()) {
+						Histogramme h = e.getValue();
+						writer.println(algo.getKey()+","+axe+","+e.getKey()+","+h.getNb()+","+h.getNbTimeouts()+","+h.getMoyenne()
+							+","+h.getMin()+","+h.getQuantile(0.5)+","+h.getQuantile(0.9)+","+h.getQuantile(0.99)+","+h.getMax());
+					}
+		}
+	}
+
+	//vrai si l'axe a des valeurs
+	public boolean aDesValeurs(Axe axe) {
+		return !histogrammes.get(axe).isEmpty();
+	}
+
+	//courbe du temps median (et du p90 en pointilles) de chaque algo en fonction de l'axe, temps en echelle log
+	public JFreeChart creerGraphique(Axe axe) {
+		XYSeriesCollection dataset = new XYSeriesCollection();
+		for(Map.Entry<String, TreeMap<Double, Histogramme>> algo : histogrammes.get(axe).entrySet()) {
+			XYSeries mediane = new XYSeries(algo.getKey()+" (mediane)");
+			XYSeries p90 = new XYSeries(algo.getKey()+" (p90)");
+			for(Map.Entry<Double, Histogramme> e : algo.getValue().entrySet()) {
+				//l'echelle log n'accepte pas les temps nuls ; un quantile censure (infini) n'est pas trace
+				double m = e.getValue().getQuantile(0.5), q = e.getValue().getQuantile(0.9);
+				if(m>0 && m<Double.POSITIVE_INFINITY) mediane.add(e.getKey().doubleValue(), m);
+				if(q>0 && q<Double.POSITIVE_INFINITY) p90.add(e.getKey().doubleValue(), q);
+			}
+			dataset.addSeries(mediane);
+			dataset.addSeries(p90);
+		}
+		String nomAxe = axe==Axe.N ? "Nombre de sommets" : axe==Axe.P ? "Probabilite" : "k";
+		JFreeChart chart = ChartFactory.createXYLineChart("Temps d'execution en fonction de "+(axe==Axe.N ? "n" : axe==Axe.P ? "p" : "k"),
+			nomAxe, "Millisecondes", dataset, PlotOrientation.VERTICAL, true, false, false);
+		XYPlot plot = chart.getXYPlot();
+		LogAxis temps = new LogAxis("Millisecondes (echelle log)");
+		temps.setSmallestValue(Histogramme.MIN);
+		temps.setNumberFormatOverride(new DecimalFormat("0.##E0"));
+		plot.setRangeAxis(temps);
+		XYLineAndShapeRenderer renderer = new XYLineAndShapeRenderer();
+		BasicStroke pointilles = new BasicStroke(1.0f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10.0f, new float[] {4.0f, 4.0f}, 0.0f);
+		for(int s=0; s<dataset.getSeriesCount(); s++) {
+			//la mediane et le p90 d'un algo ont la meme couleur
+			renderer.setSeriesPaint(s, Color.getHSBColor((s/2)*0.17f, 0.8f, 0.8f));
+			renderer.setSeriesStroke(s, s%2==0 ? new BasicStroke(2.0f) : pointilles);
+		}
+		plot.setRenderer(renderer);
+		plot.setBackgroundPaint(Color.white);
+		plot.setRangeGridlinePaint(Color.lightGray);
+		plot.setDomainGridlinePaint(Color.lightGray);
+		return chart;
+	}
+
+	//ecrit la courbe d'un axe en SVG si le fichier finit par .svg, en PNG sinon
+	public void ecrireGraphique(Axe axe, String chemin) throws IOException {
+		JFreeChart chart = creerGraphique(axe);
+		if(chemin.endsWith(".svg")) {
+			SVGGraphics2D g2 = new SVGGraphics2D(LARGEUR, HAUTEUR);
+			chart.draw(g2, new Rectangle(0, 0, LARGEUR, HAUTEUR));
+			SVGUtils.writeToSVG(new File(chemin), g2.getSVGElement());
+		}
+		else
+			ChartUtilities.saveChartAsPNG(new File(chemin), chart, LARGEUR, HAUTEUR);
+	}
+
+	//ecrit les agregats (prefixe-agregats.csv) et, pour chaque axe qui a des valeurs, sa courbe
+	//(prefixe-n.svg et prefixe-n.png, ...)
+	public void exporter(String prefixe) throws IOException {
+		ecrireAgregats(prefixe+"-agregats.csv");
+		for(Axe axe : Axe.values())
+			if(aDesValeurs(axe)) {
+				String nom = prefixe+"-"+axe.name().toLowerCase();
+				ecrireGraphique(axe, nom+".svg");
+				ecrireGraphique(axe, nom+".png");
+			}
+	}
+
+	//usage : java Batterie.Rapport fichierDeResultats [prefixe des fichiers du rapport]
+	public static void main(String[] args) throws IOException {
+		System.setProperty("java.awt.headless", "true");
+		if(args.length<1) {
+			System.out.println("usage : java Batterie.Rapport fichierDeResultats [prefixe]");
+			return;
+		}
+		Rapport r = new Rapport();
+		r.lire(args[0]);
+		String prefixe = args.length>1 ? args[1] : args[0].replaceAll("\\.csv$", "");
+		r.exporter(prefixe);
+		System.out.println(r.getNbLignes()+" lignes lues, rapport ecrit dans "+prefixe+"-*");
+	}
+}
@@ -1,10 +1,36 @@
 package Batterie;
+import java.util.Arrays;
+import java.util.Map;
+
 //objet gnr lors de l'appel de la mthode run() d'un VertexCover
 public class Resultat {
 	
 	private float tempsExec;
 	private boolean reponse;
 	private String nomAlgo;
+	//taille de la couverture calculee, -1 si l'algo ne la donne pas
+	private int tailleCouverture = -1;
+	//vrai si l'algo a ete interrompu par une limite de temps ou de noeuds
+	private boolean timeout;
+	//nombre de sommets du graphe teste
+	private int tailleGraphe;
+	
+	//statistiques sur les repetitions (voir VertexCover.mesurer), en millisecondes
+	private int repetitions = 1;
+	private float tempsMin;
+	private float tempsMedian;
+	private float tempsP90;
+	private float tempsP99;
+	private float ecartType;
+	//moyennes par repetition du temps CPU (en millisecondes) et des octets alloues par le thread de l'algo,
+	//-1 si la JVM ne les donne pas
+	private float tempsCPU = -1;
+	private long allocation = -1;
+	//temps passe dans le GC par repetition, en moyenne (en millisecondes, pour toute la JVM),
+	//-1 s'il n'est pas mesure (algos mesures en parallele)
+	private float tempsGC = -1;
+	//compteurs de l'instrumentation (noeuds, regles de branchement, noyau...), null si elle est desactivee
+	private Map<String, Long> compteurs;
 	
 	public Resultat() {
 	}
@@ -39,10 +65,147 @@ public class Resultat {
 		nomAlgo=s;
 	}
 	
+	public int getTaille() {
+		return tailleCouverture;
+	}
+	
+	public void setTaille(int t) {
+		tailleCouverture=t;
+	}
+	
+	public boolean isTimeout() {
+		return timeout;
+	}
+	
+	public void setTimeout(boolean t) {
+		timeout=t;
+	}
+	
+	//reponse telle qu'elle est ecrite dans les resultats : true, false ou TIMEOUT
+	public String getRepTexte() {
+		return timeout ? "TIMEOUT" : String.valueOf(reponse);
+	}
+	
+	public int getTailleGraphe() {
+		return tailleGraphe;
+	}
+	
+	public void setTailleGraphe(int t) {
+		tailleGraphe=t;
+	}
+	
+	//temps de chaque repetition : calcule les statistiques, le temps d'execution etant la mediane
+	public void setTemps(float[] temps) {
+		float[] t = temps.clone();
+		Arrays.sort(t);
+		repetitions = t.length;
+		tempsMin = t[0];
+		tempsMedian = t.length%2==1 ? t[t.length/2] : (t[t.length/2-1]+t[t.length/2])/2;
+		tempsP90 = percentile(t, 90);
+		tempsP99 = percentile(t, 99);
+		double moyenne = 0;
+		for(float x : t)
+			moyenne += x;
+		moyenne /= t.length;
+		double variance = 0;
+		for(float x : t)
+			variance += (x-moyenne)*(x-moyenne);
+		ecartType = t.length>1 ? (float)Math.sqrt(variance/(t.length-1)) : 0;
+		tempsExec = tempsMedian;
+	}
+	
+	//statistiques deja calculees, par exemple relues dans un fichier de resultats (voir MagasinResultats)
+	public void setStatistiques(int repetitions, float min, float mediane, float p90, float p99, float ecartType) {
+		this.repetitions = repetitions;
+		tempsMin = min;
+		tempsMedian = mediane;
+		tempsP90 = p90;
+		tempsP99 = p99;
+		this.ecartType = ecartType;
+	}
+	
+	//percentile p d'un tableau trie (rang le plus proche)
+	private static float percentile(float[] trie, int p) {
+		int rang = (int)Math.ceil(p/100.0*trie.length);
+		return trie[Math.max(0, rang-1)];
+	}
+	
+	public int getRepetitions() {
+		return repetitions;
+	}
+	
+	public float getTempsMin() {
+		return tempsMin;
+	}
+	
+	public float getTempsMedian() {
+		return tempsMedian;
+	}
+	
+	public float getTempsP90() {
+		return tempsP90;
+	}
+	
+	public float getTempsP99() {
+		return tempsP99;
+	}
+	
+	public float getEcartType() {
+		return ecartType;
+	}
+	
+	public float getTempsCPU() {
+		return tempsCPU;
+	}
+	
+	public void setTempsCPU(float t) {
+		tempsCPU=t;
+	}
+	
+	public long getAllocation() {
+		return allocation;
+	}
+	
+	public void setAllocation(long a) {
+		allocation=a;
+	}
+	
+	public float getTempsGC() {
+		return tempsGC;
+	}
+	
+	public void setTempsGC(float t) {
+		tempsGC=t;
+	}
+	
+	public Map<String, Long> getCompteurs() {
+		return compteurs;
+	}
+	
+	public void setCompteurs(Map<String, Long> c) {
+		compteurs=c;
+	}
+	
+	//compteurs sous la forme nom=valeur;nom=valeur (pour le csv), vide si l'instrumentation est desactivee
+	public String getCompteursTexte() {
+		if(compteurs==null)
+			return "";
+		String res = "";
+		for(Map.Entry<String, Long> e : compteurs.entrySet())
+			res += (res.isEmpty() ? "" : ";")+e.getKey()+"="+e.getValue();
+		return res;
+	}
+	
 	public String toString() {
 		String res = "";
-		res += "Rponse :"+reponse+"\n";
+		res += "Rponse :"+getRepTexte()+"\n";
 		res += "Temps d'xcution : "+tempsExec+" millisecondes\n";
+		if(tailleCouverture>=0)
+			res += "Taille de la couverture : "+tailleCouverture+"\n";
+		if(compteurs!=null)
+			res += "Compteurs : "+getCompteursTexte()+"\n";
+		if(repetitions>1)
+			res += repetitions+" repetitions : min "+tempsMin+", mediane "+tempsMedian+", p90 "+tempsP90+", p99 "+tempsP99+", ecart type "+ecartType+"\n";
 		return res;
 	}
 }
@@ -8,6 +8,7 @@
  */
 package agape.algos;
 
+import agape.test.Tracker;
 import edu.uci.ics.jung.graph.Graph;
 import org.apache.commons.collections15.Factory;
 
@@ -27,5 +28,18 @@ public class Algorithms<V,E> {
     public  Factory<V> getVertexFactory() { return vertexFactory; }
     public  Factory<E> getEdgeFactory() { return edgeFactory; }
     public  Factory<Graph<V,E>> getGraphFactory() {return graphFactory; }
+
+    //follows the branches of the algorithms, null if disabled
+    protected Tracker tracker;
+
+    /**
+     * Enables the instrumentation of the algorithms with a new tracker.
+     */
+    public  void initTracker() { tracker=new Tracker(); }
+    /**
+     * @param t tracker counting the branches of the algorithms, null to disable the instrumentation
+     */
+    public  void setTracker(Tracker t) { tracker=t; }
+    public  Tracker getTracker() { return tracker; }
     
 }
@@ -0,0 +1,428 @@
+/*
+ * Copyright University of Orleans - ENSI de Bourges
+ * This software is governed by the CeCILL  license under French law and
+ * abiding by the rules of distribution of free software.  You can  use,
+ * modify and/ or redistribute the software under the terms of the CeCILL
+ * license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info".
+ */
+package agape.algos;
+
+import agape.tools.CompactGraph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exact coloring over vertex bitmasks (arrays of long, so that the number of
+ * vertices is not limited). As in the algorithm of Bodlaender and Kratsch,
+ * the chromatic number of an induced subgraph G[X] is 1 plus the smallest
+ * chromatic number of G[X-I] over the maximal independent sets I of G[X]
+ * (Lawler); here the sets I are restricted to those containing a vertex of
+ * maximum degree of G[X], since the color class of this vertex can always be
+ * extended into such a set. The sets are enumerated with Bron-Kerbosch
+ * (pivoting) on the complement, largest first.
+ * Each subgraph is bounded below by a greedy clique and above by a DSATUR
+ * coloring, and the search stops as soon as they meet. The chromatic numbers
+ * (or the lower bounds proven by an unsuccessful search) of the induced
+ * subgraphs are memoized in a LRU cache keyed by their mask.
+ */
+class BitsetColoring {
+
+	private final int n;
+	private final int words;
+	private final long[][] neighbors;
+
+	//value of a mask: chromatic number if positive, minus a lower bound if negative
+	private final LinkedHashMap<Mask,Integer> cache;
+	//coloring of the whole graph given by setUpperBound, null if none
+	private long[][] upperBound;
+
+	BitsetColoring(CompactGraph<?> G, final int cacheCapacity)
+	{
+		n=G.getVertexCount();
+		words=Math.max(1, (n+63)>>>6);
+		neighbors=new long[n][words];
+		int[] offsets=G.getOffsets();
+		int[] adjacency=G.getAdjacency();
+		for(int v=0;v<n;v++)
+			for(int p=offsets[v];p<offsets[v+1];p++)
+				set(neighbors[v], adjacency[p]);
+		cache=new LinkedHashMap<Mask,Integer>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Mask,Integer> eldest)
+			{
+				return size()>cacheCapacity;
+			}
+		};
+	}
+
+	/**
+	 * Gives a coloring of the graph, used as upper bound of the search when
+	 * it has less colors than DSATUR.
+	 * @param color color (from 0) of each vertex id
+	 */
+	void setUpperBound(int[] color)
+	{
+		int k=0;
+		for(int c : color)
+			k=Math.max(k, c+1);
+		upperBound=new long[k][words];
+		for(int v=0;v<n;v++)
+			set(upperBound[color[v]], v);
+	}
+
+	/**
+	 * @return chromatic number of the graph
+	 */
+	int chromaticNumber()
+	{
+		return chromaticNumber(all(), n);
+	}
+
+	/**
+	 * Computes an optimal coloring: the color classes are taken one by one,
+	 * each one being a maximal independent set of the remaining graph whose
+	 * removal decreases the chromatic number (or the whole DSATUR coloring of
+	 * the remaining graph when it is optimal).
+	 * @return the color classes, as arrays of vertex ids
+	 */
+	int[][] coloring()
+	{
+		ArrayList<int[]> classes=new ArrayList<int[]>();
+		long[] X=all();
+		while(!isEmpty(X))
+		{
+			int k=chromaticNumber(X, n);
+			long[][] upper=upperColoring(X);
+			if(upper.length==k)
+			{
+				for(long[] c : upper)
+					classes.add(ids(c));
+				break;
+			}
+			for(long[] I : maximalIndependentSets(X))
+			{
+				long[] rest=minus(X, I);
+				if(chromaticNumber(rest, k-1)==k-1)
+				{
+					classes.add(ids(I));
+					X=rest;
+					break;
+				}
+			}
+		}
+		return classes.toArray(new int[classes.size()][]);
+	}
+
+	/**
+	 * Chromatic number of G[X] if it is at most limit, else a lower bound
+	 * greater than limit.
+	 */
+	private int chromaticNumber(long[] X, int limit)
+	{
+		if(isEmpty(X))
+			return 0;
+		Mask key=new Mask(X);
+		Integer known=cache.get(key);
+		int lower=1;
+		if(known!=null)
+		{
+			if(known>0)
+				return known;
+			lower=-known;
+			if(lower>limit)
+				return lower;
+		}
+		lower=Math.max(lower, cliqueSize(X));
+		if(lower>limit)
+		{
+			cache.put(key, -lower);
+			return lower;
+		}
+		int upper=upperColoring(X).length;
+		int best=Math.min(upper, limit+1);
+		for(long[] I : maximalIndependentSets(X))
+		{
+			if(best<=lower)
+				break;
+			int c=chromaticNumber(minus(X, I), best-2);
+			if(c+1<best)
+				best=c+1;
+		}
+		//the search is exhaustive below best: best is exact if it has been reached
+		if(best<=limit || best==upper)
+			cache.put(key, best);
+		else
+			cache.put(key, -Math.max(lower, best));
+		return best;
+	}
+
+	/**
+	 * DSATUR coloring of G[X], or the coloring given by setUpperBound if X is
+	 * the whole graph and it has less colors.
+	 */
+	private long[][] upperColoring(long[] X)
+	{
+		long[][] dsatur=dsatur(X);
+		if(upperBound!=null && upperBound.length<dsatur.length && Arrays.equals(X, all()))
+			return upperBound;
+		return dsatur;
+	}
+
+	/**
+	 * Maximal independent sets of G[X] containing a vertex of maximum degree,
+	 * largest first.
+	 */
+	private ArrayList<long[]> maximalIndependentSets(long[] X)
+	{
+		int v=-1, dmax=-1;
+		for(int u=next(X, 0);u>=0;u=next(X, u+1))
+		{
+			int d=countAnd(neighbors[u], X);
+			if(d>dmax)
+			{
+				dmax=d;
+				v=u;
+			}
+		}
+		ArrayList<long[]> sets=new ArrayList<long[]>();
+		long[] R=new long[words];
+		set(R, v);
+		long[] P=minus(X, neighbors[v]);
+		clear(P, v);
+		bronKerbosch(R, P, new long[words], sets);
+		sets.sort((a, b) -> count(b)-count(a));
+		return sets;
+	}
+
+	/**
+	 * Bron-Kerbosch with pivoting on the complement of the graph: R is
+	 * independent, P are the candidates (not adjacent to R) and E the vertices
+	 * already excluded.
+	 */
+	private void bronKerbosch(long[] R, long[] P, long[] E, ArrayList<long[]> sets)
+	{
+		if(isEmpty(P))
+		{
+			if(isEmpty(E))
+				sets.add(R.clone());
+			return;
+		}
+		//pivot u: the branches are the candidates in N[u], as few as possible
+		int pivot=-1, fewest=Integer.MAX_VALUE;
+		for(int pass=0;pass<2;pass++)
+		{
+			long[] S=pass==0 ? P : E;
+			for(int u=next(S, 0);u>=0;u=next(S, u+1))
+			{
+				int b=countAnd(neighbors[u], P)+(get(P, u) ? 1 : 0);
+				if(b<fewest)
+				{
+					fewest=b;
+					pivot=u;
+				}
+			}
+		}
+		long[] branches=and(P, neighbors[pivot]);
+		if(get(P, pivot))
+			set(branches, pivot);
+		for(int w=next(branches, 0);w>=0;w=next(branches, w+1))
+		{
+			set(R, w);
+			long[] P2=minus(P, neighbors[w]);
+			clear(P2, w);
+			bronKerbosch(R, P2, minus(E, neighbors[w]), sets);
+			clear(R, w);
+			clear(P, w);
+			set(E, w);
+		}
+	}
+
+	/**
+	 * Size of a clique of G[X] built greedily from each vertex, the next vertex
+	 * being the candidate with the most candidate neighbors.
+	 */
+	private int cliqueSize(long[] X)
+	{
+		int best=0;
+		for(int s=next(X, 0);s>=0;s=next(X, s+1))
+		{
+			int size=1;
+			long[] C=and(X, neighbors[s]);
+			//a clique from s has at most 1+|C| vertices
+			if(1+count(C)<=best)
+				continue;
+			while(!isEmpty(C))
+			{
+				int v=-1, dmax=-1;
+				for(int u=next(C, 0);u>=0;u=next(C, u+1))
+				{
+					int d=countAnd(neighbors[u], C);
+					if(d>dmax)
+					{
+						dmax=d;
+						v=u;
+					}
+				}
+				size++;
+				C=and(C, neighbors[v]);
+			}
+			best=Math.max(best, size);
+		}
+		return best;
+	}
+
+	/**
+	 * DSATUR coloring of G[X] (Brelaz, 1979): the next vertex is the one
+	 * whose neighbors have the most distinct colors, then the one of highest
+	 * degree; it takes the smallest color not used by its neighbors.
+	 * @return the color classes
+	 */
+	long[][] dsatur(long[] X)
+	{
+		ArrayList<long[]> classes=new ArrayList<long[]>();
+		long[] uncolored=X.clone();
+		while(!isEmpty(uncolored))
+		{
+			int v=-1, satMax=-1, degMax=-1;
+			for(int u=next(uncolored, 0);u>=0;u=next(uncolored, u+1))
+			{
+				int sat=0;
+				for(long[] c : classes)
+					if(intersects(c, neighbors[u]))
+						sat++;
+				int deg=countAnd(neighbors[u], uncolored);
+				if(sat>satMax || (sat==satMax && deg>degMax))
+				{
+					satMax=sat;
+					degMax=deg;
+					v=u;
+				}
+			}
+			int c=0;
+			while(c<classes.size() && intersects(classes.get(c), neighbors[v]))
+				c++;
+			if(c==classes.size())
+				classes.add(new long[words]);
+			set(classes.get(c), v);
+			clear(uncolored, v);
+		}
+		return classes.toArray(new long[classes.size()][]);
+	}
+
+	/*
+	 * Bitmasks
+	 */
+
+	long[] all()
+	{
+		long[] X=new long[words];
+		for(int v=0;v<n;v++)
+			set(X, v);
+		return X;
+	}
+
+	int[] ids(long[] S)
+	{
+		int[] ids=new int[count(S)];
+		int i=0;
+		for(int v=next(S, 0);v>=0;v=next(S, v+1))
+			ids[i++]=v;
+		return ids;
+	}
+
+	private static void set(long[] S, int v) { S[v>>>6]|=1L<<v; }
+
+	private static void clear(long[] S, int v) { S[v>>>6]&=~(1L<<v); }
+
+	private static boolean get(long[] S, int v) { return (S[v>>>6] & (1L<<v))!=0; }
+
+	/**
+	 * @return the first vertex of S from v, -1 if none
+	 */
+	private static int next(long[] S, int v)
+	{
+		int w=v>>>6;
+		if(w>=S.length)
+			return -1;
+		long word=S[w] & (-1L<<v);
+		while(word==0)
+		{
+			if(++w==S.length)
+				return -1;
+			word=S[w];
+		}
+		return (w<<6)+Long.numberOfTrailingZeros(word);
+	}
+
+	private static boolean isEmpty(long[] S)
+	{
+		for(long w : S)
+			if(w!=0)
+				return false;
+		return true;
+	}
+
+	private static int count(long[] S)
+	{
+		int c=0;
+		for(long w : S)
+			c+=Long.bitCount(w);
+		return c;
+	}
+
+	private static int countAnd(long[] A, long[] B)
+	{
+		int c=0;
+		for(int i=0;i<A.length;i++)
+			c+=Long.bitCount(A[i] & B[i]);
+		return c;
+	}
+
+	private static boolean intersects(long[] A, long[] B)
+	{
+		for(int i=0;i<A.length;i++)
+			if((A[i] & B[i])!=0)
+				return true;
+		return false;
+	}
+
+	private static long[] and(long[] A, long[] B)
+	{
+		long[] C=new long[A.length];
+		for(int i=0;i<A.length;i++)
+			C[i]=A[i] & B[i];
+		return C;
+	}
+
+	private static long[] minus(long[] A, long[] B)
+	{
+		long[] C=new long[A.length];
+		for(int i=0;i<A.length;i++)
+			C[i]=A[i] & ~B[i];
+		return C;
+	}
+
+	/**
+	 * Key of the cache.
+	 */
+	private static final class Mask {
+		private final long[] bits;
+		private final int hash;
+		Mask(long[] bits)
+		{
+			this.bits=bits;
+			this.hash=Arrays.hashCode(bits);
+		}
+		@Override
+		public int hashCode() { return hash; }
+		@Override
+		public boolean equals(Object o)
+		{
+			return o instanceof Mask && Arrays.equals(bits, ((Mask)o).bits);
+		}
+	}
+}
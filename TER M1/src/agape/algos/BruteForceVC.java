@@ -0,0 +1,276 @@
+/*
+ * Copyright University of Orleans - ENSI de Bourges
+ * This software is governed by the CeCILL  license under French law and
+ * abiding by the rules of distribution of free software.  You can  use,
+ * modify and/ or redistribute the software under the terms of the CeCILL
+ * license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info".
+ */
+package agape.algos;
+
+import agape.tools.CompactGraph;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exhaustive search of a minimum vertex cover of size at most k, over
+ * bitmasks. The sets of t vertices are enumerated for t=1,2,...,k in
+ * revolving-door order (Knuth, TAOCP 7.2.1.3, algorithm R): two consecutive
+ * sets differ by one vertex in and one vertex out, so that the number of
+ * uncovered edges is updated with a few word-level operations (popcounts of
+ * N(v) minus the set) and no allocation.
+ * The sets of a given size are split by their first (smallest) vertex, each
+ * prefix being an independent task when a ForkJoinPool is given.
+ * Isolated vertices are never put in the cover.
+ */
+class BruteForceVC {
+
+	//vertices of degree at least one, and their adjacency as bitmasks over them
+	private final int[] vertices;
+	private final long[][] neighbors;
+	private final int[] degree;
+	private final int n;
+	private final int words;
+	private final int edgeCount;
+
+	private volatile int[] found;
+	//time and node limits (a node being an enumerated set), null if none
+	private SearchBudget budget;
+	//number of enumerated sets, null if they are not counted
+	private LongAdder nodeCounter;
+
+	BruteForceVC(CompactGraph<?> G)
+	{
+		int N=G.getVertexCount();
+		int[] index=new int[N];
+		int count=0;
+		for(int v=0;v<N;v++)
+			index[v]=G.degree(v)>0 ? count++ : -1;
+		n=count;
+		words=Math.max(1, (n+63)>>>6);
+		vertices=new int[n];
+		neighbors=new long[n][words];
+		degree=new int[n];
+		int[] offsets=G.getOffsets();
+		int[] adjacency=G.getAdjacency();
+		for(int v=0;v<N;v++)
+			if(index[v]>=0)
+			{
+				int i=index[v];
+				vertices[i]=v;
+				degree[i]=G.degree(v);
+				for(int p=offsets[v];p<offsets[v+1];p++)
+				{
+					int j=index[adjacency[p]];
+					neighbors[i][j>>>6]|=1L<<j;
+				}
+			}
+		edgeCount=G.getEdgeCount();
+	}
+
+	/**
+	 * Limits the time and the number of enumerated sets of the search.
+	 * @param budget limits, null for none
+	 */
+	void setBudget(SearchBudget budget) { this.budget=budget; }
+
+	/**
+	 * @param counter counter of the enumerated sets, null for none
+	 */
+	void setNodeCounter(LongAdder counter) { this.nodeCounter=counter; }
+
+	/**
+	 * Looks for a minimum vertex cover of size at most k.
+	 * @param k maximum size of the cover
+	 * @param pool pool running the prefixes in parallel, null for a sequential search
+	 * @return the ids of the cover, null if there is no cover of size at most k
+	 * or if the budget has been exceeded
+	 */
+	int[] solve(int k, ForkJoinPool pool)
+	{
+		if(edgeCount==0)
+			return k>=0 ? new int[0] : null;
+		//a vertex covers at most maxdeg edges
+		int maxDeg=0;
+		for(int d : degree)
+			maxDeg=Math.max(maxDeg, d);
+		//all but one vertex always cover the graph
+		for(int t=(edgeCount+maxDeg-1)/maxDeg;t<=Math.min(k, n-1);t++)
+		{
+			PrefixTask task=new PrefixTask(t, 0, n-t+1);
+			if(pool!=null)
+				pool.invoke(task);
+			else
+				task.compute();
+			if(found!=null)
+				return found;
+			if(budget!=null && budget.isExceeded())
+				return null;
+		}
+		return null;
+	}
+
+	/**
+	 * Task enumerating the sets of size t whose first vertex is in [from,to[.
+	 */
+	private class PrefixTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int t;
+		private final int from;
+		private final int to;
+		PrefixTask(int t, int from, int to)
+		{
+			this.t=t;
+			this.from=from;
+			this.to=to;
+		}
+		@Override
+		protected void compute()
+		{
+			if(to-from>1 && getPool()!=null)
+				invokeAll(new PrefixTask(t, from, (from+to)>>>1), new PrefixTask(t, (from+to)>>>1, to));
+			else
+				for(int f=from;f<to && found==null && (budget==null || !budget.isExceeded());f++)
+				{
+					long sets=enumerate(t, f);
+					if(nodeCounter!=null)
+						nodeCounter.add(sets);
+				}
+		}
+	}
+
+	/**
+	 * Enumerates the sets of size t whose smallest vertex is f: f and the
+	 * (t-1)-combinations of {f+1,...,n-1}, in revolving-door order.
+	 * @return number of enumerated sets
+	 */
+	private long enumerate(int t, int f)
+	{
+		long[] S=new long[words];
+		int base=f+1;
+		int r=t-1;
+		int size=n-base;
+		//number of edges not covered by S
+		int uncovered=edgeCount-add(S, f);
+		if(r==0)
+		{
+			if(uncovered==0) report(S);
+			return 1;
+		}
+		//c[1..r] are the chosen elements (relative to base), c[r+1] is a sentinel
+		int[] c=new int[r+2];
+		for(int j=1;j<=r;j++)
+		{
+			c[j]=j-1;
+			uncovered-=add(S, base+c[j]);
+		}
+		c[r+1]=size;
+
+		long steps=0;
+		while(true)
+		{
+			if(uncovered==0)
+			{
+				report(S);
+				return steps+1;
+			}
+			if((++steps & 1023)==0 && (found!=null || (budget!=null && budget.spend(1024))))
+				return steps;
+
+			int in, out;
+			int j=2;
+			boolean increase;
+			if((r&1)==1)
+			{
+				if(c[1]+1<c[2])
+				{
+					out=c[1]; in=++c[1];
+					uncovered+=remove(S, base+out);
+					uncovered-=add(S, base+in);
+					continue;
+				}
+				increase=false;
+			}
+			else
+			{
+				if(c[1]>0)
+				{
+					out=c[1]; in=--c[1];
+					uncovered+=remove(S, base+out);
+					uncovered-=add(S, base+in);
+					continue;
+				}
+				increase=true;
+			}
+			//R4 (try to decrease c[j]) and R5 (try to increase c[j])
+			in=-1;
+			out=-1;
+			while(in<0 && j<=r)
+			{
+				if(!increase && c[j]>=j)
+				{
+					out=c[j]; in=j-2;
+					c[j]=c[j-1];
+					c[j-1]=j-2;
+				}
+				else if(increase && c[j]+1<c[j+1])
+				{
+					out=j-2; in=c[j]+1;
+					c[j-1]=c[j];
+					c[j]++;
+				}
+				else
+				{
+					//R4 goes on with R5 for j+1, R5 with R4 for j+1
+					j++;
+					increase=!increase;
+				}
+			}
+			if(in<0)
+				return steps;
+			uncovered+=remove(S, base+out);
+			uncovered-=add(S, base+in);
+		}
+	}
+
+	/**
+	 * Adds v to S.
+	 * @return number of edges newly covered
+	 */
+	private int add(long[] S, int v)
+	{
+		long[] N=neighbors[v];
+		int c=0;
+		for(int w=0;w<words;w++)
+			c+=Long.bitCount(N[w] & ~S[w]);
+		S[v>>>6]|=1L<<v;
+		return c;
+	}
+
+	/**
+	 * Removes v from S.
+	 * @return number of edges which are not covered anymore
+	 */
+	private int remove(long[] S, int v)
+	{
+		S[v>>>6]&=~(1L<<v);
+		long[] N=neighbors[v];
+		int c=0;
+		for(int w=0;w<words;w++)
+			c+=Long.bitCount(N[w] & ~S[w]);
+		return c;
+	}
+
+	private synchronized void report(long[] S)
+	{
+		if(found!=null)
+			return;
+		int[] C=new int[n];
+		int s=0;
+		for(int i=0;i<n;i++)
+			if((S[i>>>6]>>>i & 1L)!=0)
+				C[s++]=vertices[i];
+		found=java.util.Arrays.copyOf(C, s);
+	}
+}
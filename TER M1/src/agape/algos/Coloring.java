@@ -9,14 +9,13 @@
 package agape.algos;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.commons.collections15.Factory;
 
+import agape.tools.CompactGraph;
 import agape.tools.Operations;
 
 import com.google.common.collect.Sets;
@@ -36,6 +35,14 @@ public class Coloring<V,E> extends Algorithms<V,E> {
     //some constants
     final double alpha=0.19903; // for chromatic number
     
+    //pool used by the parallel algorithms (null for a sequential computation)
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    
+    //if true, the exact colorings run on bitmasks (BitsetColoring) instead of copies of the JUNG graph
+    private boolean useCompactGraph = true;
+    //maximum number of induced subgraphs whose chromatic number is memoized by BitsetColoring
+    private int cacheCapacity = 1<<18;
+    
     /**
      * Constructor of the Coloring algorithms.
      * Needs a factory in order to create new graphs.
@@ -45,6 +52,30 @@ public class Coloring<V,E> extends Algorithms<V,E> {
         graphFactory = factory;
     };
     
+    /**
+     * Sets the pool used by the parallel algorithms (by default, the common
+     * ForkJoinPool).
+     * @param pool pool, null for a sequential computation
+     */
+    public void setParallel(ForkJoinPool pool) { this.pool = pool; }
+    
+    /**
+     * Chooses the graph representation used by graphColoring and
+     * chromaticNumberBodlaenderKratsch. By default, the graph is translated
+     * into bitmasks of its vertices (see BitsetColoring), which lifts the
+     * limit of 63 vertices; otherwise the algorithms work on a copy of the
+     * JUNG graph made with the graph factory.
+     * @param b true to use the bitmask representation
+     */
+    public void setUseCompactGraph(boolean b) { useCompactGraph = b; }
+    
+    /**
+     * Sets the maximum number of induced subgraphs whose chromatic number is
+     * memoized by the bitmask exact coloring (least recently used first out).
+     * @param entries number of entries
+     */
+    public void setCacheCapacity(int entries) { cacheCapacity = entries; }
+    
     /**
      * @param Ginit the graph
      * @return a coloring assignment using a greedy algorithm that removes iteratively greedy MISs.
@@ -67,17 +98,125 @@ public class Coloring<V,E> extends Algorithms<V,E> {
     
     }
     
+    /**
+     * Returns a coloring of G computed with the DSATUR heuristic (Brelaz, "New
+     * methods to color the vertices of a graph", 1979): the next vertex to
+     * color is the one whose neighbors have the most distinct colors, and it
+     * takes the smallest color not used by its neighbors. Time O((n+m) log n).
+     * @param g graph
+     * @return the partition of the vertices into color classes.
+     */
+    public Set<Set<V>> dsaturColoring(Graph<V,E> g)
+    {
+        return dsaturColoring(CompactGraph.fromGraph(g));
+    }
+
+    /**
+     * Same as dsaturColoring(Graph), on a compact graph.
+     * @param G compact graph
+     * @return the partition of the vertices into color classes.
+     */
+    public Set<Set<V>> dsaturColoring(CompactGraph<V> G)
+    {
+        return toClasses(G, new GreedyColoring(G).dsatur());
+    }
+
+    /**
+     * Returns a coloring of G computed with the smallest-last heuristic
+     * (Matula and Beck, "Smallest-last ordering and clustering and graph
+     * coloring algorithms", 1983): the vertices are colored greedily in the
+     * reverse order of their removal by minimum degree, which uses at most
+     * d+1 colors if G is d-degenerate. Time O(n+m).
+     * @param g graph
+     * @return the partition of the vertices into color classes.
+     */
+    public Set<Set<V>> smallestLastColoring(Graph<V,E> g)
+    {
+        return smallestLastColoring(CompactGraph.fromGraph(g));
+    }
+
+    /**
+     * Same as smallestLastColoring(Graph), on a compact graph.
+     * @param G compact graph
+     * @return the partition of the vertices into color classes.
+     */
+    public Set<Set<V>> smallestLastColoring(CompactGraph<V> G)
+    {
+        return toClasses(G, new GreedyColoring(G).smallestLast());
+    }
+
+    /**
+     * Returns a coloring of G computed in parallel with the Jones and
+     * Plassmann algorithm ("A parallel graph coloring heuristic", 1993): the
+     * vertices get random priorities, and at each round the uncolored
+     * vertices of higher priority than all their uncolored neighbors take the
+     * smallest color not used by their neighbors. The rounds run on the pool
+     * given to setParallel.
+     * @param g graph
+     * @param seed seed of the random priorities
+     * @return the partition of the vertices into color classes.
+     */
+    public Set<Set<V>> jonesPlassmannColoring(Graph<V,E> g, long seed)
+    {
+        return jonesPlassmannColoring(CompactGraph.fromGraph(g), seed);
+    }
+
+    /**
+     * Same as jonesPlassmannColoring(Graph, long), on a compact graph.
+     * @param G compact graph
+     * @param seed seed of the random priorities
+     * @return the partition of the vertices into color classes.
+     */
+    public Set<Set<V>> jonesPlassmannColoring(CompactGraph<V> G, long seed)
+    {
+        return toClasses(G, new GreedyColoring(G).jonesPlassmann(pool, seed));
+    }
+
+    /**
+     * Best of the DSATUR and smallest-last colorings, upper bound of the exact algorithms.
+     */
+    private static int[] upperBound(CompactGraph<?> G)
+    {
+        GreedyColoring greedy = new GreedyColoring(G);
+        int[] dsatur = greedy.dsatur();
+        int[] smallestLast = greedy.smallestLast();
+        return GreedyColoring.colorCount(smallestLast) < GreedyColoring.colorCount(dsatur) ? smallestLast : dsatur;
+    }
+
+    private Set<Set<V>> toClasses(CompactGraph<V> G, int[] color)
+    {
+        return toClasses(G, GreedyColoring.classes(color));
+    }
+
+    private Set<Set<V>> toClasses(CompactGraph<V> G, int[][] classes)
+    {
+        Set<Set<V>> sol = new HashSet<Set<V>>();
+        for(int[] c : classes)
+            sol.add(G.toVertexSet(c, c.length));
+        return sol;
+    }
+
     /**
      * Returns the chromatic number of a graph G. This method is based on the
      * Bodlaender and Kratsch work ("An exact algorithm for graph coloring
      * with polynomial memory" 2006). The algorithm solves the problem in PSPACE
      * and in time O(5.283^n).
-     * This algorithm is limited to graphs having no more than 63 vertices. 
+     * With the bitmask representation (see setUseCompactGraph), the search is
+     * bounded by DSATUR colorings and greedy cliques, and memoized; the best
+     * of the DSATUR and smallest-last colorings of G is its first upper bound.
+     * Otherwise, this algorithm is limited to graphs having no more than 63 vertices. 
      * @param Ginit graph
-     * @return chromatic number of G
+     * @return the partition of the vertices into color classes.
      */
     public Set<Set<V>> graphColoring(Graph<V,E> Ginit)
     {
+        if(useCompactGraph)
+        {
+            CompactGraph<V> G = CompactGraph.fromGraph(Ginit);
+            BitsetColoring engine = new BitsetColoring(G, cacheCapacity);
+            engine.setUpperBound(upperBound(G));
+            return toClasses(G, engine.coloring());
+        }
         Graph<V, E> G = Operations.copyGraph(Ginit, this.graphFactory);
 
         return graphColoringInternal(G);
@@ -172,12 +311,22 @@ public class Coloring<V,E> extends Algorithms<V,E> {
      * Bodlaender and Kratsch work ("An exact algorithm for graph coloring
      * with polynomial memory" 2006). The algorithm solves the problem in PSPACE
      * and in time O(5.283^n).
-     * This algorithm is limited to graphs having no more than 63 vertices. 
+     * With the bitmask representation (see setUseCompactGraph), the search is
+     * bounded by DSATUR colorings and greedy cliques, and memoized; the best
+     * of the DSATUR and smallest-last colorings of G is its first upper bound.
+     * Otherwise, this algorithm is limited to graphs having no more than 63 vertices. 
      * @param Ginit graph
      * @return chromatic number of G
      */
     public int chromaticNumberBodlaenderKratsch(Graph<V,E> Ginit)
     {
+        if(useCompactGraph)
+        {
+            CompactGraph<V> G = CompactGraph.fromGraph(Ginit);
+            BitsetColoring engine = new BitsetColoring(G, cacheCapacity);
+            engine.setUpperBound(upperBound(G));
+            return engine.chromaticNumber();
+        }
         Graph<V, E> G = Operations.copyGraph(Ginit, this.graphFactory);
 
         return chromaticNumberInternal(G);
@@ -244,162 +393,29 @@ public class Coloring<V,E> extends Algorithms<V,E> {
         return best;
       }
     
-    private Map<String, Integer> S_0x ;
-    
-    protected void computeAi(Graph<V,E> g){
-        S_0x = new HashMap<String, Integer>();
-
-        int n = g.getVertexCount();
-        Collection<V> Vset = g.getVertices();
-        ArrayList<V> Varray = new ArrayList<V>(Vset);
-
-        long N = (long) Math.pow(2.0D, n);
-
-        String s = longToString(N-1, n);
-        S_0x.put(s, 0);
-
-        for(long i = N-2; i>=0; i--) {
-            s = longToString(i, n);
-            if( ! S_0x.containsKey(s)) {
-                computeSx(g, s, Varray);
-
-            }
-        }
-    }
-
-    protected int computeSx(Graph<V,E> g, String X, ArrayList<V>     Varray) {
-    	
-    	// W = "0000000000000000000"
-    	StringBuffer sbW = new StringBuffer(X.length());
-    	for(int i = 0; i< X.length();i++)
-    	{
-    		sbW.replace(i, i+1, "0");
-    	}
-    	
-    	return computeSWx(g, X, new String(sbW), Varray);
-    }
-    
-    
-    protected int computeSWx(Graph<V,E> g, String X, String W, ArrayList<V>     Varray) {
-
-    	// W = "00000000000000000000"
-    	// This is the value we need to compute for X
-    	boolean W_full_0 = true;
-    	for(int i = 0; i< W.length();i++) {
-    		W_full_0 = W_full_0 && W.charAt(i)=='0';
-    	}
-
-    	// If W = "0000000000000000" we check if we have already computed the value
-    	if (W_full_0)
-    	{
-    		Integer res = S_0x.get(X);
-    		if (res != null)
-    			return res;
-    	}
-    	
-    	 Set<V> setW = new HashSet<V>();
-    	 
-    	 // sb = X union W
-    	 boolean full_1 = true;
-    	 //int W_number_of_1 = 0;
-    	 for(int i = 0; i< W.length();i++)
-    	 {
-    		full_1 = full_1 && (W.charAt(i)=='1' || X.charAt(i)=='1');
-    		if (W.charAt(i)=='1')
-    			{
-    			//	W_number_of_1 += 1;
-    				setW.add(Varray.get(i));
-    			}
-    	 }
-    	
-    	 // X union W = "1111" = Varray = vertices set
-    	 // W is the complementary set of X. We can compute S_W[X] by
-    	 // checking if W is a MIS in G.
-    	 if (full_1)
-    	 {
-    		 // if W represents a MIS in G, S_W[X] = 1 else 0
-    		 if(MIS.isIndependentSet(g, setW)) return 1;
-    		 else return 0;
-    	 }
-    	 
-    	 // X union W does not cover the vertices
-    	 // we have to find one missing vertex and introduce into the formula
-    	 
-    	 int missing_vertex = 0;
-    	 while (! (W.charAt(missing_vertex)=='0' && X.charAt(missing_vertex)=='0'))
-    		 missing_vertex++;
-    	 
-    	 StringBuffer SBX2 = new StringBuffer(X);
-    	 SBX2.replace(missing_vertex, missing_vertex+1, "1");
-    	 String X2 = new String(SBX2);
-    	 int SwXv = computeSWx(g, X2, W, Varray);
-    	 
-    	 StringBuffer SBW2 = new StringBuffer(W);
-    	 SBW2.replace(missing_vertex, missing_vertex+1, "1");
-    	 String W2 = new String(SBW2);
-    	 int SwvX = computeSWx(g, X, W2, Varray);
-    	 
-    	 if (W_full_0)
-    		 S_0x.put(X, new Integer(SwXv + SwvX));
-    	 
-    	 return SwXv + SwvX;
-}
-
-
-
-    protected boolean isKColorable(int k) {
-
-        long c_k_S = 0;
-
-        for(String s : S_0x.keySet()) {
-            int ai = S_0x.get(s);
-            long ai_pow_k = (long) Math.pow(ai, k);
-
-            // Calcul de (-1) ** (taille de s)  avec taille de s = nombre de 1 dans s
-            int t = 0;
-            for(int i = 0 ; i < s.length(); i++)
-                if(s.charAt(i)=='1') t++;
-
-            if (t%2==0)
-                c_k_S += ai_pow_k;
-            else
-                c_k_S -= ai_pow_k;
-        }
-
-        return (c_k_S>0);
-    }
-
     /**
-     * Returns the chromatic number of a graph G. The complexity of this algorithm is O(n^2.2^n) in time 
-     * and O(n.2^n) in space.
+     * Returns the chromatic number of a graph G. The complexity of this algorithm is O(n.2^n) in time 
+     * and 4.2^n bytes in space.
      * This method is based on the inclusion-exclusion algorithm proposed in 
      * A. Bjorklund and T. Husfeldt, “Inclusion--Exclusion Algorithms for Counting Set Partitions,” 
      * 47th Annual IEEE Symposium on Foundations of Computer Science (FOCS’06), pp. 575–582, 2006.
+     * The subsets of vertices are int bitmasks: the numbers of independent sets
+     * of all the subsets are computed with a zeta transform, and the
+     * inclusion-exclusion sums modulo two primes (see InclusionExclusionColoring),
+     * up to the number of colors of the best of the DSATUR and smallest-last colorings.
+     * The transform runs on the pool given to setParallel.
+     * The isolated vertices are left out; this algorithm is limited to graphs
+     * having no more than 30 other vertices, and needs a heap of 4.2^n bytes
+     * for n of them (4 GiB for n=30, that is -Xmx5g or more).
      *  
-     * @param G graph
+     * @param g graph
      * @return chromatic number of G
+     * @throws IllegalStateException if the heap is too small for these 4.2^n bytes
      * @author P. Berthome, J.-F. Lalande
      */
     public int chromaticNumberBjorklundHusfeldt(Graph<V,E> g) {
-    	
-    	computeAi(g);
-
-    	// Lemma 3
-    	int k = 1;
-    	while(! isKColorable(k)) k++;
-    	return k;
-    }
-
-    private static String longToString(long N, int k){
-        StringBuffer sb = new StringBuffer();
-        long R = N;
-        for(int i = 0; i < k; i++){
-            if(R%2 ==0) sb.append('0');
-            else sb.append('1');
-
-            R/=2;
-        }
-        return sb.toString();
+    	CompactGraph<V> G = CompactGraph.fromGraph(g);
+    	return new InclusionExclusionColoring(G).chromaticNumber(pool, GreedyColoring.colorCount(upperBound(G)));
     }
     
     
@@ -0,0 +1,1162 @@
+/*
+ * Copyright University of Orleans - ENSI de Bourges
+ * This software is governed by the CeCILL  license under French law and
+ * abiding by the rules of distribution of free software.  You can  use,
+ * modify and/ or redistribute the software under the terms of the CeCILL
+ * license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info".
+ */
+package agape.algos;
+
+import agape.test.Tracker;
+import agape.tools.CompactGraph;
+import agape.tools.ReversibleGraph;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Vertex cover engine working on a CompactGraph. The branching algorithms
+ * delete vertices from a ReversibleGraph and backtrack with its trail, so that
+ * no graph is copied nor allocated during the search. The vertex sets used
+ * for branching are stored in a stack of int (sets) which follows the
+ * recursion.
+ * The search can be run on a ForkJoinPool: down to a cutoff depth, each branch
+ * of a branching node becomes a task working on its own copy of the graph and
+ * of the current cover.
+ * When the remaining graph is not connected, its components can be solved
+ * independently (setComponentBranching).
+ * This class is used by MVC, which translates back the solution.
+ * @param <V> Vertices type
+ */
+class CompactMVC<V> {
+
+	//branching algorithms
+	static final int DBS=0;
+	static final int KERNEL=1;
+	static final int NIEDERMEIER=2;
+
+	private final CompactGraph<V> graph;
+	private final ReversibleGraph g;
+	private final int[] offsets;
+	private final int[] adjacency;
+
+	//current cover (stack of vertex ids) and best cover found
+	private final int[] buf;
+	private int bufSize;
+	private final Solution solution;
+
+	//depth of the current node in the search tree, and depth under which tasks are not forked
+	private int depth;
+	private int cutoff=-1;
+
+	//if true, the search stops at the first cover found, else it looks for smaller covers
+	private boolean decision;
+
+	//vertex sets to branch on, a set being stored between two positions
+	private int[] sets;
+	private int setsTop;
+
+	//used to compute unions of neighborhoods
+	private final int[] stamp;
+	private int currentStamp;
+
+	//lower bounds evaluated at each node, null if none
+	private VCLowerBound[] bounds;
+
+	//if true, the components of a disconnected graph are solved independently
+	private boolean components;
+	//the connectivity is tested again when the number of vertices is at most nextCheck
+	private int nextCheck=Integer.MAX_VALUE;
+	//vertices of the components, in BFS order
+	private final int[] queue;
+
+	//time and node limits shared by all the tasks, null if none
+	private SearchBudget budget;
+	//nodes explored by this search since the last check of the budget
+	private int nodes;
+
+	//counters of the search nodes and of the branching rules, null if the search is not instrumented
+	private Counters counters;
+
+	CompactMVC(CompactGraph<V> graph)
+	{
+		this.graph=graph;
+		this.g=new ReversibleGraph(graph);
+		this.offsets=graph.getOffsets();
+		this.adjacency=graph.getAdjacency();
+		int n=graph.getVertexCount();
+		buf=new int[n];
+		solution=new Solution(n, null);
+		sets=new int[Math.max(16, 4*n)];
+		stamp=new int[n];
+		queue=new int[n];
+	}
+
+	/**
+	 * Copy of the current state of a search, used by the forked tasks.
+	 * The best cover, the stop flag and the budget are shared with the original.
+	 */
+	private CompactMVC(CompactMVC<V> parent)
+	{
+		graph=parent.graph;
+		g=new ReversibleGraph(parent.g);
+		offsets=parent.offsets;
+		adjacency=parent.adjacency;
+		buf=parent.buf.clone();
+		bufSize=parent.bufSize;
+		solution=parent.solution;
+		depth=parent.depth;
+		cutoff=parent.cutoff;
+		decision=parent.decision;
+		sets=new int[Math.max(16, 4*graph.getVertexCount())];
+		stamp=new int[graph.getVertexCount()];
+		queue=new int[graph.getVertexCount()];
+		bounds=copy(parent.bounds, g);
+		components=parent.components;
+		nextCheck=parent.nextCheck;
+		budget=parent.budget;
+		counters=parent.counters;
+	}
+
+	/**
+	 * Search of a minimum cover of a component of the current graph of
+	 * parent, with its own best cover. The component memo and the prune
+	 * counters are shared with the parent, and the search stops with it.
+	 */
+	private CompactMVC(CompactMVC<V> parent, int[] component)
+	{
+		graph=parent.graph;
+		g=new ReversibleGraph(parent.g);
+		offsets=parent.offsets;
+		adjacency=parent.adjacency;
+		int n=graph.getVertexCount();
+		buf=new int[n];
+		solution=new Solution(n, parent.solution);
+		solution.prunes=parent.solution.prunes;
+		solution.memo=parent.solution.memo;
+		sets=new int[Math.max(16, 4*n)];
+		stamp=new int[n];
+		queue=new int[n];
+		bounds=copy(parent.bounds, g);
+		components=parent.components;
+		budget=parent.budget;
+		counters=parent.counters;
+		currentStamp++;
+		for(int v : component)
+			stamp[v]=currentStamp;
+		for(int v=0;v<n;v++)
+			if(!g.isRemoved(v) && stamp[v]!=currentStamp)
+				g.removeVertex(v);
+	}
+
+	private static VCLowerBound[] copy(VCLowerBound[] bounds, ReversibleGraph g)
+	{
+		if(bounds==null)
+			return null;
+		VCLowerBound[] b=new VCLowerBound[bounds.length];
+		for(int i=0;i<b.length;i++)
+			b[i]=bounds[i].copy(g);
+		return b;
+	}
+
+	/**
+	 * Best cover found by a search and its tasks.
+	 */
+	private static class Solution {
+		final int[] best;
+		volatile int size=-1;
+		//set when the search has to stop (a cover has been found in decision mode)
+		volatile boolean stop;
+		//solution of the search of which this one solves a component, null if none
+		final Solution parent;
+		//number of nodes pruned by each lower bound
+		LongAdder[] prunes=new LongAdder[0];
+		//minimum covers of the small components already solved
+		Map<ComponentKey,int[]> memo;
+		Solution(int n, Solution parent)
+		{
+			best=new int[n];
+			this.parent=parent;
+		}
+		/**
+		 * @return true if this search or a search it is a component of has to stop
+		 */
+		boolean isStopped()
+		{
+			for(Solution s=this;s!=null;s=s.parent)
+				if(s.stop)
+					return true;
+			return false;
+		}
+		synchronized void offer(int[] buf, int bufSize)
+		{
+			if(size<0 || bufSize<size)
+			{
+				System.arraycopy(buf, 0, best, 0, bufSize);
+				size=bufSize;
+			}
+		}
+	}
+
+	/**
+	 * @return the best cover found (ids), its size being given by getBestSize()
+	 */
+	int[] getBest() { return solution.best; }
+
+	/**
+	 * @return size of the best cover found, -1 if no cover has been found
+	 */
+	int getBestSize() { return solution.size; }
+
+	CompactGraph<V> getGraph() { return graph; }
+
+	/**
+	 * Chooses between the decision mode (the search stops at the first cover
+	 * of size at most k) and the optimization mode (branch and bound: once a
+	 * cover is found, the search goes on with the budget tightened so that
+	 * only smaller covers are accepted).
+	 * @param decision true for the decision mode
+	 */
+	void setDecision(boolean decision) { this.decision=decision; }
+
+	/**
+	 * Sets the lower bounds evaluated at each node of the search tree, and
+	 * initializes them on the current graph.
+	 * @param bounds lower bounds, cheapest first
+	 */
+	void setLowerBounds(VCLowerBound... bounds)
+	{
+		this.bounds=bounds.length==0 ? null : bounds;
+		solution.prunes=new LongAdder[bounds.length];
+		for(int i=0;i<bounds.length;i++)
+		{
+			bounds[i].init(g);
+			solution.prunes[i]=new LongAdder();
+		}
+	}
+
+	/**
+	 * Enables the decomposition of the graph into connected components.
+	 * @param components true to solve the components independently
+	 */
+	void setComponentBranching(boolean components)
+	{
+		this.components=components;
+		solution.memo=components ? new ConcurrentHashMap<ComponentKey,int[]>() : null;
+	}
+
+	/**
+	 * Limits the time and the number of nodes of the search. When a limit is
+	 * exceeded, the search stops and its result is meaningless.
+	 * @param budget limits, null for none
+	 */
+	void setBudget(SearchBudget budget) { this.budget=budget; }
+
+	/**
+	 * Counts the search nodes, the maximum depth and the applications of each
+	 * branching rule in the counters of a tracker.
+	 * @param tracker tracker, null to disable the instrumentation
+	 */
+	void setTracker(Tracker tracker) { counters=tracker==null ? null : new Counters(tracker); }
+
+	/**
+	 * Counters of a tracker, looked up once so that the search only pays for
+	 * the increments.
+	 */
+	private static final class Counters {
+		final LongAdder nodes;
+		final LongAccumulator maxDepth;
+		final LongAdder components;
+		final LongAdder deg0, deg1, deg2, deg2Triangle, deg2Common, deg3, deg3Triangle, deg3Cycle;
+		final LongAdder deg5, regular, maxDegree, buss;
+		Counters(Tracker t)
+		{
+			nodes=t.counter("nodes");
+			maxDepth=t.maximum("max depth");
+			components=t.counter("components");
+			deg0=t.counter("deg-0");
+			deg1=t.counter("deg-1");
+			deg2=t.counter("deg-2");
+			deg2Triangle=t.counter("deg-2 triangle");
+			deg2Common=t.counter("deg-2 common neighbor");
+			deg3=t.counter("deg-3");
+			deg3Triangle=t.counter("deg-3 triangle");
+			deg3Cycle=t.counter("deg-3 4-cycle");
+			deg5=t.counter("deg>=5");
+			regular=t.counter("regular");
+			maxDegree=t.counter("max degree");
+			buss=t.counter("buss");
+		}
+	}
+
+	/**
+	 * @return true if the search has been stopped by its budget
+	 */
+	boolean isInterrupted() { return budget!=null && budget.isExceeded(); }
+
+	/**
+	 * @return number of nodes pruned by each lower bound
+	 */
+	long[] getPruneCounts()
+	{
+		long[] c=new long[solution.prunes.length];
+		for(int i=0;i<c.length;i++)
+			c[i]=solution.prunes[i].sum();
+		return c;
+	}
+
+	/*
+	 * Graph state
+	 */
+
+	/**
+	 * Puts v in the current cover and removes it from the graph.
+	 */
+	private void take(int v)
+	{
+		buf[bufSize++]=v;
+		g.removeVertex(v);
+	}
+
+	private void record()
+	{
+		solution.offer(buf, bufSize);
+		if(decision)
+			solution.stop=true;
+	}
+
+	private void push(int v)
+	{
+		if(setsTop==sets.length)
+			sets=Arrays.copyOf(sets, 2*sets.length);
+		sets[setsTop++]=v;
+	}
+
+	/**
+	 * Pushes the neighbors of v on the set stack.
+	 * @return start position of the set
+	 */
+	private int pushNeighbors(int v)
+	{
+		int from=setsTop;
+		for(int i=offsets[v];i<offsets[v+1];i++)
+			if(g.isActive(i))
+				push(adjacency[i]);
+		return from;
+	}
+
+	/**
+	 * Pushes on the set stack the union of the given vertices and of the
+	 * neighborhoods of the vertices sets[nfrom..nto[, without the vertices
+	 * sets[xfrom..xto[.
+	 * @return start position of the set
+	 */
+	private int pushUnion(int nfrom, int nto, int xfrom, int xto, int... vertices)
+	{
+		currentStamp++;
+		for(int i=xfrom;i<xto;i++)
+			stamp[sets[i]]=currentStamp;
+		int from=setsTop;
+		for(int x : vertices)
+			if(stamp[x]!=currentStamp)
+			{ stamp[x]=currentStamp; push(x); }
+		for(int j=nfrom;j<nto;j++)
+		{
+			int v=sets[j];
+			for(int i=offsets[v];i<offsets[v+1];i++)
+				if(g.isActive(i) && stamp[adjacency[i]]!=currentStamp)
+				{ stamp[adjacency[i]]=currentStamp; push(adjacency[i]); }
+		}
+		return from;
+	}
+
+	/**
+	 * Branches on the set sets[from..to[ of vertices to put in the cover:
+	 * removes them, solves the remaining instance and backtracks.
+	 */
+	private boolean branch(int from, int to, int k, int algo)
+	{
+		int mark=g.mark();
+		int size=bufSize;
+		for(int i=from;i<to;i++)
+			take(sets[i]);
+		boolean b=solve(k-(to-from), algo);
+		g.undo(mark);
+		bufSize=size;
+		return b;
+	}
+
+	/**
+	 * Branches on a single vertex.
+	 */
+	private boolean branchOn(int v, int k, int algo)
+	{
+		int from=setsTop;
+		push(v);
+		boolean b=branch(from, setsTop, k, algo);
+		setsTop=from;
+		return b;
+	}
+
+	/**
+	 * Branches on two sets of vertices.
+	 */
+	private boolean branches(int k, int algo, int f1, int t1, int f2, int t2)
+	{
+		if(depth<cutoff)
+			return fork(k, algo, f1, t1, f2, t2);
+		depth++;
+		if(counters!=null)
+			counters.maxDepth.accumulate(depth);
+		boolean a=branch(f1, t1, k, algo);
+		boolean b=branch(f2, t2, k, algo);
+		depth--;
+		return a || b;
+	}
+
+	/**
+	 * Branches on three sets of vertices.
+	 */
+	private boolean branches(int k, int algo, int f1, int t1, int f2, int t2, int f3, int t3)
+	{
+		if(depth<cutoff)
+			return fork(k, algo, f1, t1, f2, t2, f3, t3);
+		depth++;
+		if(counters!=null)
+			counters.maxDepth.accumulate(depth);
+		boolean a=branch(f1, t1, k, algo);
+		boolean b=branch(f2, t2, k, algo);
+		boolean c=branch(f3, t3, k, algo);
+		depth--;
+		return a || b || c;
+	}
+
+	/*
+	 * Parallel search
+	 */
+
+	/**
+	 * Solves the instance on a ForkJoinPool: branching nodes of depth lower
+	 * than cutoff fork one task per branch.
+	 * @param pool pool running the tasks
+	 * @param cutoff depth of the search tree under which branches are explored sequentially
+	 * @param k vertex cover size
+	 * @param algo branching algorithm
+	 * @return true if a cover of size at most k has been found
+	 */
+	boolean solveParallel(ForkJoinPool pool, int cutoff, int k, int algo)
+	{
+		this.cutoff=cutoff;
+		return pool.invoke(new BranchTask<V>(this, k, algo));
+	}
+
+	/**
+	 * Task exploring a branch of the search tree on its own copy of the state.
+	 */
+	private static class BranchTask<V> extends RecursiveTask<Boolean> {
+		private static final long serialVersionUID = 1L;
+		private final CompactMVC<V> search;
+		private final int k;
+		private final int algo;
+		BranchTask(CompactMVC<V> search, int k, int algo)
+		{
+			this.search=search;
+			this.k=k;
+			this.algo=algo;
+		}
+		@Override
+		protected Boolean compute()
+		{
+			return search.solve(k, algo);
+		}
+	}
+
+	/**
+	 * Creates the task exploring the branch on sets[from..to[.
+	 */
+	private BranchTask<V> task(int from, int to, int k, int algo)
+	{
+		CompactMVC<V> child=new CompactMVC<V>(this);
+		child.depth=depth+1;
+		for(int i=from;i<to;i++)
+			child.take(sets[i]);
+		return new BranchTask<V>(child, k-(to-from), algo);
+	}
+
+	private boolean fork(int k, int algo, int... bounds)
+	{
+		@SuppressWarnings({"unchecked","rawtypes"})
+		BranchTask<V>[] tasks=new BranchTask[bounds.length/2];
+		for(int i=0;i<tasks.length;i++)
+			tasks[i]=task(bounds[2*i], bounds[2*i+1], k, algo);
+		ForkJoinTask.invokeAll(tasks);
+		boolean r=false;
+		for(BranchTask<V> t : tasks)
+			r=t.join() || r;
+		return r;
+	}
+
+	boolean solve(int k, int algo)
+	{
+		if(solution.isStopped())
+			return false;
+		if(budget!=null && ((++nodes & (SearchBudget.BATCH-1))==0 ? budget.spend(SearchBudget.BATCH) : budget.isExceeded()))
+			return false;
+		if(counters!=null)
+			counters.nodes.increment();
+		//branch and bound: only covers smaller than the best one are looked for
+		int bestSize=solution.size;
+		if(bestSize>=0 && bestSize-1-bufSize<k)
+			k=bestSize-1-bufSize;
+		if(bounds!=null && k>=0)
+			for(int i=0;i<bounds.length;i++)
+				if(bounds[i].lowerBound(g, k)>k)
+				{
+					solution.prunes[i].increment();
+					return false;
+				}
+		if(components && k>0 && g.getEdgeCount()>0 && g.getVertexCount()<=nextCheck)
+			return components(k, algo);
+		return algorithm(k, algo);
+	}
+
+	private boolean algorithm(int k, int algo)
+	{
+		switch(algo)
+		{
+			case DBS : return degreeBranchingStrategy(k);
+			case KERNEL : return kernel(k);
+			default : return niedermeier(k);
+		}
+	}
+
+	/*
+	 * Connected components
+	 */
+
+	//components smaller than MIN_SPLIT vertices are left to the branching rules
+	private static final int MIN_SPLIT=8;
+	//components of at most MEMO_SIZE vertices are memoized, up to MEMO_CAPACITY of them
+	private static final int MEMO_SIZE=32;
+	private static final int MEMO_CAPACITY=1<<16;
+
+	/**
+	 * Solves the remaining graph component by component, if it is not
+	 * connected. The components but the largest one are solved by distinct
+	 * searches, from the smallest to the largest: the budget of a component is
+	 * k minus the size of the covers already found and minus lower bounds
+	 * (m/maxdeg) of the next components. The largest component is then solved
+	 * by the current search, with the remaining budget.
+	 * The connectivity test is O(m): it is made again only once the graph has
+	 * lost an eighth of its vertices, and splitting is only worth a search per
+	 * component when the components are not too small.
+	 */
+	private boolean components(int k, int algo)
+	{
+		int n=g.getVertexCount();
+		int saved=nextCheck;
+		nextCheck=n-Math.max(2, n/8);
+		try
+		{
+			return split(k, algo);
+		}
+		finally
+		{
+			nextCheck=saved;
+		}
+	}
+
+	private boolean split(int k, int algo)
+	{
+		int nonIsolated=g.getVertexCount()-g.getDegVertexCount(0);
+		currentStamp++;
+		int end=bfs(g.getMaxDegVertex(), 0);
+		if(end==nonIsolated || nonIsolated-end<MIN_SPLIT)
+			return algorithm(k, algo);
+
+		//start positions of the components in queue
+		int[] starts=new int[nonIsolated/2+2];
+		int r=1;
+		for(int v=0;v<g.size() && end<nonIsolated;v++)
+			if(!g.isRemoved(v) && g.degree(v)>0 && stamp[v]!=currentStamp)
+			{
+				starts[r++]=end;
+				end=bfs(v, end);
+			}
+		starts[r]=end;
+		int[][] comps=new int[r][];
+		for(int i=0;i<r;i++)
+			comps[i]=Arrays.copyOfRange(queue, starts[i], starts[i+1]);
+		Arrays.sort(comps, (a, b) -> a.length-b.length);
+		if(comps[r-2].length<MIN_SPLIT)
+			return algorithm(k, algo);
+		if(counters!=null)
+			counters.components.increment();
+		int[] lb=new int[r];
+		int rest=0;
+		for(int i=0;i<r;i++)
+		{
+			lb[i]=degreeBound(comps[i]);
+			rest+=lb[i];
+		}
+
+		int[][] covers=new int[r-1][];
+		int used=0;
+		if(depth<cutoff)
+		{
+			@SuppressWarnings({"unchecked","rawtypes"})
+			ComponentTask<V>[] tasks=new ComponentTask[r-1];
+			for(int i=0;i<r-1;i++)
+				tasks[i]=new ComponentTask<V>(this, comps[i], k-rest+lb[i], algo);
+			ForkJoinTask.invokeAll(tasks);
+			for(int i=0;i<r-1;i++)
+			{
+				covers[i]=tasks[i].join();
+				if(covers[i]==null)
+					return false;
+				used+=covers[i].length;
+			}
+		}
+		else
+			for(int i=0;i<r-1;i++)
+			{
+				rest-=lb[i];
+				covers[i]=componentCover(comps[i], k-used-rest, algo);
+				if(covers[i]==null)
+					return false;
+				used+=covers[i].length;
+			}
+
+		int mark=g.mark();
+		int size=bufSize;
+		for(int i=0;i<r-1;i++)
+		{
+			for(int v : covers[i])
+				take(v);
+			for(int v : comps[i])
+				if(!g.isRemoved(v))
+					g.removeVertex(v);
+		}
+		boolean b=algorithm(k-used, algo);
+		g.undo(mark);
+		bufSize=size;
+		return b;
+	}
+
+	/**
+	 * Stores in queue, from position start, the component of v.
+	 * @return end position of the component
+	 */
+	private int bfs(int v, int start)
+	{
+		int head=start, tail=start;
+		stamp[v]=currentStamp;
+		queue[tail++]=v;
+		while(head<tail)
+		{
+			int u=queue[head++];
+			for(int i=offsets[u];i<offsets[u+1];i++)
+				if(g.isActive(i) && stamp[adjacency[i]]!=currentStamp)
+				{
+					stamp[adjacency[i]]=currentStamp;
+					queue[tail++]=adjacency[i];
+				}
+		}
+		return tail;
+	}
+
+	private int degreeBound(int[] comp)
+	{
+		int m=0, d=0;
+		for(int v : comp)
+		{
+			m+=g.degree(v);
+			d=Math.max(d, g.degree(v));
+		}
+		m/=2;
+		return (m+d-1)/d;
+	}
+
+	/**
+	 * Computes a minimum cover of a component, if there is one of size at
+	 * most k. Small components are solved without budget and memoized.
+	 * @return the cover, null if it is greater than k
+	 */
+	private int[] componentCover(int[] comp, int k, int algo)
+	{
+		if(k<=0)
+			return null;
+		ComponentKey key=null;
+		int budget=k;
+		if(comp.length<=MEMO_SIZE)
+		{
+			Arrays.sort(comp);
+			key=new ComponentKey(comp);
+			int[] c=solution.memo.get(key);
+			if(c!=null)
+				return c.length<=k ? c : null;
+			budget=comp.length;
+		}
+		CompactMVC<V> sub=new CompactMVC<V>(this, comp);
+		sub.solve(budget, algo);
+		int size=sub.solution.size;
+		//the cover of a stopped search is not needed any more, and may not be minimum
+		if(size<0 || solution.isStopped())
+			return null;
+		int[] c=Arrays.copyOf(sub.solution.best, size);
+		//an interrupted search may not have found a minimum cover
+		if(key!=null && !isInterrupted() && solution.memo.size()<MEMO_CAPACITY)
+			solution.memo.putIfAbsent(key, c);
+		return size<=k ? c : null;
+	}
+
+	/**
+	 * Task computing the cover of a component.
+	 */
+	private static class ComponentTask<V> extends RecursiveTask<int[]> {
+		private static final long serialVersionUID = 1L;
+		private final CompactMVC<V> search;
+		private final int[] comp;
+		private final int k;
+		private final int algo;
+		ComponentTask(CompactMVC<V> search, int[] comp, int k, int algo)
+		{
+			this.search=search;
+			this.comp=comp;
+			this.k=k;
+			this.algo=algo;
+		}
+		@Override
+		protected int[] compute()
+		{
+			return search.componentCover(comp, k, algo);
+		}
+	}
+
+	/**
+	 * Key of a memoized component: its sorted vertex ids. Since the search
+	 * only deletes vertices, a component is the subgraph induced by its vertices.
+	 */
+	private static final class ComponentKey {
+		private final int[] ids;
+		private final int hash;
+		ComponentKey(int[] ids)
+		{
+			this.ids=ids;
+			this.hash=Arrays.hashCode(ids);
+		}
+		@Override
+		public int hashCode() { return hash; }
+		@Override
+		public boolean equals(Object o)
+		{
+			return o instanceof ComponentKey && Arrays.equals(ids, ((ComponentKey)o).ids);
+		}
+	}
+
+	/*
+	 * Approximations
+	 */
+
+	/**
+	 * 2-approximation: takes both endpoints of an uncovered edge until all
+	 * edges are covered.
+	 */
+	int twoApproximationCover()
+	{
+		takeMaximalMatching();
+		record();
+		return solution.size;
+	}
+
+	/**
+	 * Greedy approximation: takes a vertex of maximum degree until all edges
+	 * are covered.
+	 */
+	int greedyCoverMaxDegree()
+	{
+		while(g.getEdgeCount()>0)
+			take(g.getMaxDegVertex());
+		record();
+		return solution.size;
+	}
+
+	/**
+	 * Takes both endpoints of the edges of a maximal matching.
+	 * @return number of edges of the matching
+	 */
+	private int takeMaximalMatching()
+	{
+		int m=0;
+		for(int u=0;u<g.size() && g.getEdgeCount()>0;u++)
+			if(!g.isRemoved(u) && g.degree(u)>0)
+			{
+				int v=g.firstNeighbor(u);
+				take(u);
+				take(v);
+				m++;
+			}
+		return m;
+	}
+
+	/*
+	 * Minimum vertex cover
+	 */
+
+	/**
+	 * Computes a minimum vertex cover. The neighbors of the vertices of degree
+	 * one are put in the cover once, since this reduction does not depend on k.
+	 * The size of the minimum cover is then bracketed between the size of a
+	 * maximal matching (lower bound) and the size of the best of the greedy and
+	 * 2-approximation covers (upper bound), and a binary search over k runs the
+	 * branching algorithm in decision mode on the reduced graph.
+	 * @param algo branching algorithm
+	 * @param pool pool running the tasks, null for a sequential search
+	 * @param cutoff depth of the search tree under which branches are explored sequentially
+	 * @return size of a minimum vertex cover, or of the best cover found if the
+	 * search has been interrupted by its budget
+	 */
+	int minimumCover(int algo, ForkJoinPool pool, int cutoff)
+	{
+		int mark=g.mark();
+		for(int v=g.getDegVertex(1);v>=0;v=g.getDegVertex(1))
+			take(g.firstNeighbor(v));
+		int forced=bufSize;
+
+		//upper bound
+		int reduced=g.mark();
+		greedyCoverMaxDegree();
+		g.undo(reduced);
+		bufSize=forced;
+		//lower bound, the 2-approximation being the endpoints of the matching
+		int lower=forced+takeMaximalMatching();
+		record();
+		g.undo(reduced);
+		bufSize=forced;
+		int upper=solution.size;
+
+		boolean d=decision;
+		decision=true;
+		while(lower<upper && !isInterrupted())
+		{
+			int mid=(lower+upper)/2;
+			solution.stop=false;
+			boolean b;
+			if(pool!=null)
+				b=solveParallel(pool, cutoff, mid-forced, algo);
+			else
+				b=solve(mid-forced, algo);
+			if(b)
+				upper=solution.size;
+			else
+				lower=mid+1;
+		}
+		solution.stop=false;
+		decision=d;
+		g.undo(mark);
+		bufSize=0;
+		return solution.size;
+	}
+
+	/*
+	 * Degree Branching Strategy
+	 */
+
+	boolean degreeBranchingStrategy(int k)
+	{
+		if(k<0) return false;
+
+		int nbe=g.getEdgeCount();
+
+		if(nbe==0)
+		{
+			record();
+			return true;
+		}
+
+		//each vertex of the cover covers at most maxdeg edges
+		if(nbe>k*g.getMaxDeg()) return false;
+
+		int vone=g.getDegVertex(1);
+		if(vone>=0)
+		{
+			if(counters!=null) counters.deg1.increment();
+			return branchOn(g.firstNeighbor(vone), k, DBS);
+		}
+
+		int vtwo=g.getDegVertex(2);
+		if(vtwo>=0)
+		{
+			if(counters!=null) counters.deg2.increment();
+			int nx=pushNeighbors(vtwo);
+			int nxEnd=setsTop;
+			//v and its neighbors at distance two
+			int v2=pushUnion(nx, nxEnd, nx, nxEnd, vtwo);
+			boolean r=branches(k, DBS, v2, setsTop, nx, nxEnd);
+			setsTop=nx;
+			return r;
+		}
+
+		int vmax=g.getMaxDegVertex();
+		if(vmax>=0 && g.degree(vmax)>=3)
+		{
+			if(counters!=null) counters.maxDegree.increment();
+			int x=setsTop;
+			push(vmax);
+			int nx=pushNeighbors(vmax);
+			boolean r=branches(k, DBS, x, nx, nx, setsTop);
+			setsTop=x;
+			return r;
+		}
+
+		return degreeBranchingStrategy(k);
+	}
+
+	/*
+	 * Buss and Goldsmith kernelization
+	 */
+
+	boolean kernel(int k)
+	{
+		if(k<0) return false;
+
+		int nbe=g.getEdgeCount();
+
+		if(nbe==0)
+		{
+			record();
+			return true;
+		}
+
+		//each vertex of the cover covers at most maxdeg edges
+		if(nbe>k*g.getMaxDeg()) return false;
+
+		int mark=g.mark();
+		int size=bufSize;
+
+		k=kernelizationBuss(k);
+
+		boolean r;
+		int vmax=g.getMaxDegVertex();
+		if(vmax<0 || g.degree(vmax)==0)
+			r=kernel(k);
+		else
+		{
+			if(counters!=null) counters.maxDegree.increment();
+			int x=setsTop;
+			push(vmax);
+			int nx=pushNeighbors(vmax);
+			r=branches(k, KERNEL, x, nx, nx, setsTop);
+			setsTop=x;
+		}
+
+		g.undo(mark);
+		bufSize=size;
+		return r;
+	}
+
+	/**
+	 * Buss reduction rules, applied until none can be applied: vertices of
+	 * degree 0 are removed, the neighbor of a vertex of degree 1 and vertices
+	 * of degree greater than k are put in the cover.
+	 * @return the remaining budget
+	 */
+	private int kernelizationBuss(int k)
+	{
+		int k0=k;
+		boolean changed=true;
+		while(changed && k>=0)
+		{
+			changed=false;
+			int vmin=g.getMinDegVertex();
+			if(vmin<0)
+				break;
+			if(g.degree(vmin)==0)
+			{ g.removeVertex(vmin); changed=true; continue; }
+			if(g.degree(vmin)==1)
+			{ take(g.firstNeighbor(vmin)); k--; changed=true; continue; }
+			int vmax=g.getMaxDegVertex();
+			if(g.degree(vmax)>k)
+			{ take(vmax); k--; changed=true; }
+		}
+		//vertices put in the cover by the reductions
+		if(counters!=null) counters.buss.add(k0-k);
+		return k;
+	}
+
+	/*
+	 * Niedermeier
+	 */
+
+	boolean niedermeier(int k)
+	{
+		if(k<0) return false;
+
+		int nbe=g.getEdgeCount();
+
+		if(nbe==0)
+		{
+			record();
+			return true;
+		}
+
+		//each vertex of the cover covers at most maxdeg edges
+		if(nbe>k*g.getMaxDeg()) return false;
+
+		int vmin=g.getMinDegVertex();
+		if(g.degree(vmin)==0)
+		{
+			if(counters!=null) counters.deg0.increment();
+			int mark=g.mark();
+			for(int v=g.getDegVertex(0);v>=0;v=g.getDegVertex(0))
+				g.removeVertex(v);
+			boolean b=niedermeier(k);
+			g.undo(mark);
+			return b;
+		}
+
+		//if a vertex of deg=1 exists
+		int vone=g.getDegVertex(1);
+		if(vone>=0)
+		{
+			if(counters!=null) counters.deg1.increment();
+			return branchOn(g.firstNeighbor(vone), k, NIEDERMEIER);
+		}
+
+		//if a vertex of deg>=5 exists, or if the graph is regular
+		int x=g.getMaxDegVertex();
+		if(g.degree(x)>=5 || g.isRegular())
+		{
+			if(counters!=null) (g.degree(x)>=5 ? counters.deg5 : counters.regular).increment();
+			int bx=setsTop;
+			push(x);
+			int nx=pushNeighbors(x);
+			boolean r=branches(k, NIEDERMEIER, bx, nx, nx, setsTop);
+			setsTop=bx;
+			return r;
+		}
+
+		//if vertex with deg=2 exists
+		int vtwo=g.getDegVertex(2);
+		if(vtwo>=0)
+		{
+			int nx=pushNeighbors(vtwo);
+			int nxEnd=setsTop;
+			int va=sets[nx];
+			int vb=sets[nx+1];
+			boolean r;
+
+			//if there is an edge between a and b
+			if(g.isEdge(va, vb))
+			{
+				if(counters!=null) counters.deg2Triangle.increment();
+				r=branch(nx, nxEnd, k, NIEDERMEIER);
+			}
+			else
+			{
+				//if a and b both have degree two with a common neighbor c different from x
+				int vc=-1;
+				if(g.degree(va)==2 && g.degree(vb)==2)
+				{
+					vc=commonNeighbor(va, vb, vtwo);
+				}
+				if(vc>=0)
+				{
+					if(counters!=null) counters.deg2Common.increment();
+					int xc=setsTop;
+					push(vtwo);
+					push(vc);
+					r=branch(xc, setsTop, k, NIEDERMEIER);
+				}
+				else
+				{
+					//branching on N(x) and N(a)∪N(b)
+					if(counters!=null) counters.deg2.increment();
+					int nanb=pushUnion(nx, nxEnd, nxEnd, nxEnd);
+					r=branches(k, NIEDERMEIER, nx, nxEnd, nanb, setsTop);
+				}
+			}
+			setsTop=nx;
+			return r;
+		}
+
+		//if vertex with deg=3 exists
+		int vthree=g.getDegVertex(3);
+		if(vthree>=0)
+		{
+			int nx=pushNeighbors(vthree);
+			int nxEnd=setsTop;
+			int va=sets[nx];
+			int vb=sets[nx+1];
+			int vc=sets[nx+2];
+			boolean r;
+
+			//tests is there is a triangle with x
+			int t=-1;
+			if(g.isEdge(va, vb)) t=vc; //triangle {x,a,b}
+			else
+				if(g.isEdge(va, vc)) t=vb; //triangle {x,a,c}
+				else
+					if(g.isEdge(vb, vc)) t=va; //triangle {x,b,c}
+
+			//test if there is a cycle of length four with x
+			int vd=-1;
+			if(t<0)
+			{
+				vd=commonNeighbor(va, vb, vthree);
+				if(vd<0) vd=commonNeighbor(va, vc, vthree);
+				if(vd<0) vd=commonNeighbor(vb, vc, vthree);
+			}
+
+			if(t>=0)
+			{
+				//x is part of a triangle: branching on N(x) and N(t)
+				if(counters!=null) counters.deg3Triangle.increment();
+				int nt=pushNeighbors(t);
+				r=branches(k, NIEDERMEIER, nx, nxEnd, nt, setsTop);
+			}
+			else if(vd>=0)
+			{
+				//branching on N(x) and {x,d}
+				if(counters!=null) counters.deg3Cycle.increment();
+				int xd=setsTop;
+				push(vthree);
+				push(vd);
+				r=branches(k, NIEDERMEIER, nx, nxEnd, xd, setsTop);
+			}
+			else
+			{
+				//branching on N(x), N(a), and {a}∪N(b)∪N(c)
+				if(counters!=null) counters.deg3.increment();
+				int na=pushNeighbors(va);
+				int naEnd=setsTop;
+				int anbnc=pushUnion(nx+1, nxEnd, nxEnd, nxEnd, va);
+				r=branches(k, NIEDERMEIER, nx, nxEnd, na, naEnd, anbnc, setsTop);
+			}
+			setsTop=nx;
+			return r;
+		}
+
+		return niedermeier(k);
+	}
+
+	/**
+	 * @return a common neighbor of u and v different from x, -1 if there is none
+	 */
+	private int commonNeighbor(int u, int v, int x)
+	{
+		for(int i=offsets[u];i<offsets[u+1];i++)
+		{
+			int w=adjacency[i];
+			if(w!=x && g.isActive(i) && g.isEdge(w, v))
+				return w;
+		}
+		return -1;
+	}
+}
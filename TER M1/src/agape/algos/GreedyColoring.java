@@ -0,0 +1,370 @@
+/*
+ * Copyright University of Orleans - ENSI de Bourges
+ * This software is governed by the CeCILL  license under French law and
+ * abiding by the rules of distribution of free software.  You can  use,
+ * modify and/ or redistribute the software under the terms of the CeCILL
+ * license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info".
+ */
+package agape.algos;
+
+import agape.tools.CompactGraph;
+import agape.tools.DegreeBuckets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Heuristic colorings of a CompactGraph, for large graphs. Each vertex takes
+ * the smallest color not used by its colored neighbors (first fit), in an
+ * order given by the heuristic:
+ * - DSATUR (Brelaz, 1979): the vertex whose neighbors have the most distinct
+ *   colors, then the one of highest degree, in O((n+m) log n);
+ * - smallest-last (Matula and Beck, 1983): the reverse of the order in which
+ *   vertices of minimum degree are removed, in O(n+m), which uses at most
+ *   degeneracy+1 colors;
+ * - Jones and Plassmann (1993): each vertex gets a random priority, and at
+ *   each round the uncolored vertices whose priority is higher than the one
+ *   of all their uncolored neighbors are colored at the same time (they are
+ *   not adjacent); the rounds are run on a ForkJoinPool.
+ * The colorings are arrays giving the color (from 0) of each vertex id, and
+ * are upper bounds for the exact algorithms.
+ */
+class GreedyColoring {
+
+	//number of vertices handled by a task of a Jones-Plassmann round
+	private static final int BLOCK=1<<12;
+
+	private final int n;
+	private final int[] offsets;
+	private final int[] adjacency;
+
+	GreedyColoring(CompactGraph<?> G)
+	{
+		n=G.getVertexCount();
+		offsets=G.getOffsets();
+		adjacency=G.getAdjacency();
+	}
+
+	/**
+	 * @return a DSATUR coloring
+	 */
+	int[] dsatur()
+	{
+		int[] color=new int[n];
+		Arrays.fill(color, -1);
+		int[] saturation=new int[n];
+		//colors of the neighbors of each vertex, as bitmasks grown on demand
+		long[][] seen=new long[n][];
+		Heap heap=new Heap(saturation);
+		for(int v=0;v<n;v++)
+			heap.add(v);
+		int[] stamp=new int[n+1];
+		for(int step=1;heap.size>0;step++)
+		{
+			int v=heap.poll();
+			int c=firstFit(v, color, stamp, step);
+			color[v]=c;
+			for(int p=offsets[v];p<offsets[v+1];p++)
+			{
+				int u=adjacency[p];
+				if(color[u]>=0)
+					continue;
+				long[] s=seen[u];
+				if(s==null || (c>>>6)>=s.length)
+					s=seen[u]=s==null ? new long[(c>>>6)+1] : Arrays.copyOf(s, Math.max(2*s.length, (c>>>6)+1));
+				if((s[c>>>6] & (1L<<c))==0)
+				{
+					s[c>>>6]|=1L<<c;
+					saturation[u]++;
+					heap.up(u);
+				}
+			}
+		}
+		return color;
+	}
+
+	/**
+	 * @return a smallest-last coloring
+	 */
+	int[] smallestLast()
+	{
+		int maxDeg=0;
+		for(int v=0;v<n;v++)
+			maxDeg=Math.max(maxDeg, offsets[v+1]-offsets[v]);
+		DegreeBuckets buckets=new DegreeBuckets(n, maxDeg);
+		for(int v=0;v<n;v++)
+			buckets.add(v, offsets[v+1]-offsets[v]);
+		int[] order=new int[n];
+		for(int i=n-1;i>=0;i--)
+		{
+			int v=buckets.first(buckets.getMin());
+			order[i]=v;
+			buckets.remove(v);
+			for(int p=offsets[v];p<offsets[v+1];p++)
+			{
+				int u=adjacency[p];
+				if(buckets.contains(u))
+					buckets.move(u, buckets.getKey(u)-1);
+			}
+		}
+		int[] color=new int[n];
+		Arrays.fill(color, -1);
+		int[] stamp=new int[n+1];
+		for(int i=0;i<n;i++)
+			color[order[i]]=firstFit(order[i], color, stamp, i+1);
+		return color;
+	}
+
+	/**
+	 * @param pool pool running the rounds in parallel, null for a sequential run
+	 * @param seed seed of the random priorities
+	 * @return a Jones-Plassmann coloring
+	 */
+	int[] jonesPlassmann(ForkJoinPool pool, long seed)
+	{
+		int[] color=new int[n];
+		Arrays.fill(color, -1);
+		//random priorities, ties broken by id
+		int[] priority=new int[n];
+		SplittableRandom random=new SplittableRandom(seed);
+		for(int v=0;v<n;v++)
+			priority[v]=random.nextInt();
+		int[] active=new int[n];
+		for(int v=0;v<n;v++)
+			active[v]=v;
+		int size=n;
+		boolean[] selected=new boolean[n];
+		while(size>0)
+		{
+			final int[] A=active;
+			final int count=size;
+			//the local maxima read the colors of the previous rounds only
+			run(pool, new Round(0, count) {
+				void compute(int from, int to)
+				{
+					for(int i=from;i<to;i++)
+					{
+						int v=A[i];
+						boolean max=true;
+						for(int p=offsets[v];p<offsets[v+1] && max;p++)
+						{
+							int u=adjacency[p];
+							max=color[u]>=0 || priority[u]<priority[v] || (priority[u]==priority[v] && u<v);
+						}
+						selected[v]=max;
+					}
+				}
+			});
+			run(pool, new Round(0, count) {
+				void compute(int from, int to)
+				{
+					for(int i=from;i<to;i++)
+						if(selected[A[i]])
+							color[A[i]]=firstFit(A[i], color);
+				}
+			});
+			int remaining=0;
+			for(int i=0;i<count;i++)
+				if(color[A[i]]<0)
+					active[remaining++]=A[i];
+			size=remaining;
+		}
+		return color;
+	}
+
+	/**
+	 * Smallest color not used by the colored neighbors of v, the colors
+	 * being marked with a stamp.
+	 */
+	private int firstFit(int v, int[] color, int[] stamp, int step)
+	{
+		int d=offsets[v+1]-offsets[v];
+		for(int p=offsets[v];p<offsets[v+1];p++)
+		{
+			int c=color[adjacency[p]];
+			//a color above the degree is never the smallest free one
+			if(c>=0 && c<=d)
+				stamp[c]=step;
+		}
+		int c=0;
+		while(stamp[c]==step)
+			c++;
+		return c;
+	}
+
+	/**
+	 * Smallest color not used by the colored neighbors of v, with a local
+	 * bitmask of the colors (for the parallel rounds).
+	 */
+	private int firstFit(int v, int[] color)
+	{
+		int d=offsets[v+1]-offsets[v];
+		long[] used=new long[(d>>>6)+1];
+		for(int p=offsets[v];p<offsets[v+1];p++)
+		{
+			int c=color[adjacency[p]];
+			if(c>=0 && c<=d)
+				used[c>>>6]|=1L<<c;
+		}
+		int w=0;
+		while(used[w]==-1L)
+			w++;
+		return (w<<6)+Long.numberOfTrailingZeros(~used[w]);
+	}
+
+	private static void run(ForkJoinPool pool, Round task)
+	{
+		if(pool!=null)
+			pool.invoke(task);
+		else
+			task.compute(task.from, task.to);
+	}
+
+	/**
+	 * Task handling the active vertices of [from,to[, split in blocks.
+	 */
+	private static abstract class Round extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		final int from;
+		final int to;
+		Round(int from, int to)
+		{
+			this.from=from;
+			this.to=to;
+		}
+		abstract void compute(int from, int to);
+		@Override
+		protected void compute()
+		{
+			if(to-from<=BLOCK)
+				compute(from, to);
+			else
+			{
+				Round outer=this;
+				int middle=(from+to)>>>1;
+				invokeAll(new Round(from, middle) {
+					void compute(int from, int to) { outer.compute(from, to); }
+				}, new Round(middle, to) {
+					void compute(int from, int to) { outer.compute(from, to); }
+				});
+			}
+		}
+	}
+
+	/**
+	 * @return number of colors of a coloring
+	 */
+	static int colorCount(int[] color)
+	{
+		int k=0;
+		for(int c : color)
+			k=Math.max(k, c+1);
+		return k;
+	}
+
+	/**
+	 * @return the color classes of a coloring, as arrays of vertex ids
+	 */
+	static int[][] classes(int[] color)
+	{
+		int k=colorCount(color);
+		int[] size=new int[k];
+		for(int c : color)
+			size[c]++;
+		int[][] classes=new int[k][];
+		for(int c=0;c<k;c++)
+			classes[c]=new int[size[c]];
+		Arrays.fill(size, 0);
+		for(int v=0;v<color.length;v++)
+			classes[color[v]][size[color[v]]++]=v;
+		return classes;
+	}
+
+	/**
+	 * Indexed binary max-heap of the uncolored vertices of DSATUR, ordered by
+	 * saturation, then degree, then smallest id. The saturation of a vertex
+	 * only increases (up).
+	 */
+	private final class Heap {
+		private final int[] saturation;
+		private final int[] heap;
+		private final int[] position;
+		int size;
+
+		Heap(int[] saturation)
+		{
+			this.saturation=saturation;
+			heap=new int[n];
+			position=new int[n];
+			Arrays.fill(position, -1);
+		}
+
+		void add(int v)
+		{
+			heap[size]=v;
+			position[v]=size++;
+			up(v);
+		}
+
+		int poll()
+		{
+			int v=heap[0];
+			position[v]=-1;
+			if(--size>0)
+			{
+				heap[0]=heap[size];
+				position[heap[0]]=0;
+				down(0);
+			}
+			return v;
+		}
+
+		void up(int v)
+		{
+			int i=position[v];
+			while(i>0)
+			{
+				int parent=(i-1)>>>1;
+				if(!before(v, heap[parent]))
+					break;
+				heap[i]=heap[parent];
+				position[heap[i]]=i;
+				i=parent;
+			}
+			heap[i]=v;
+			position[v]=i;
+		}
+
+		private void down(int i)
+		{
+			int v=heap[i];
+			while(true)
+			{
+				int child=2*i+1;
+				if(child>=size)
+					break;
+				if(child+1<size && before(heap[child+1], heap[child]))
+					child++;
+				if(!before(heap[child], v))
+					break;
+				heap[i]=heap[child];
+				position[heap[i]]=i;
+				i=child;
+			}
+			heap[i]=v;
+			position[v]=i;
+		}
+
+		private boolean before(int u, int v)
+		{
+			if(saturation[u]!=saturation[v])
+				return saturation[u]>saturation[v];
+			int du=offsets[u+1]-offsets[u], dv=offsets[v+1]-offsets[v];
+			if(du!=dv)
+				return du>dv;
+			return u<v;
+		}
+	}
+}
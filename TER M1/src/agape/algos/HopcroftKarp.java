@@ -0,0 +1,194 @@
+/*
+ * Copyright University of Orleans - ENSI de Bourges
+ * This software is governed by the CeCILL  license under French law and
+ * abiding by the rules of distribution of free software.  You can  use,
+ * modify and/ or redistribute the software under the terms of the CeCILL
+ * license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info".
+ */
+package agape.algos;
+
+import java.util.Arrays;
+
+/**
+ * Maximum matching in a bipartite graph (Hopcroft-Karp, O(m sqrt(n))) and
+ * minimum vertex cover of the bipartite graph (Konig's theorem).
+ * Left vertices are numbered from 0 to nLeft-1, right vertices from 0 to
+ * nRight-1, and the edges are given as CSR lists of right neighbors of the
+ * left vertices. The augmenting paths are searched without recursion.
+ */
+class HopcroftKarp {
+
+	private static final int INF=Integer.MAX_VALUE;
+
+	private final int nLeft;
+	private final int[] offsets;
+	private final int[] adjacency;
+
+	private final int[] matchLeft;  //right vertex matched with each left vertex, -1 if free
+	private final int[] matchRight; //left vertex matched with each right vertex, -1 if free
+	private final int[] dist;
+	private final int[] it;
+	private final int[] stack;
+
+	/**
+	 * @param nLeft number of left vertices
+	 * @param nRight number of right vertices
+	 * @param offsets right neighbors of left vertex u are adjacency[offsets[u]..offsets[u+1][
+	 * @param adjacency right neighbors of the left vertices
+	 */
+	HopcroftKarp(int nLeft, int nRight, int[] offsets, int[] adjacency)
+	{
+		this.nLeft=nLeft;
+		this.offsets=offsets;
+		this.adjacency=adjacency;
+		matchLeft=new int[nLeft];
+		matchRight=new int[nRight];
+		dist=new int[nLeft];
+		it=new int[nLeft];
+		stack=new int[nLeft];
+		Arrays.fill(matchLeft, -1);
+		Arrays.fill(matchRight, -1);
+	}
+
+	/**
+	 * Computes a maximum matching.
+	 * @return size of the matching
+	 */
+	int maxMatching()
+	{
+		int size=0;
+		while(bfs())
+		{
+			System.arraycopy(offsets, 0, it, 0, nLeft);
+			for(int u=0;u<nLeft;u++)
+				if(matchLeft[u]<0 && augment(u))
+					size++;
+		}
+		return size;
+	}
+
+	/**
+	 * @return right vertex matched with each left vertex, -1 if free
+	 */
+	int[] getMatchLeft() { return matchLeft; }
+
+	/**
+	 * @return left vertex matched with each right vertex, -1 if free
+	 */
+	int[] getMatchRight() { return matchRight; }
+
+	/**
+	 * Layers the left vertices by their distance to a free left vertex along
+	 * alternating paths.
+	 * @return true if an augmenting path exists
+	 */
+	private boolean bfs()
+	{
+		int head=0, tail=0;
+		for(int u=0;u<nLeft;u++)
+			if(matchLeft[u]<0)
+			{
+				dist[u]=0;
+				stack[tail++]=u;
+			}
+			else
+				dist[u]=INF;
+		boolean found=false;
+		while(head<tail)
+		{
+			int u=stack[head++];
+			for(int i=offsets[u];i<offsets[u+1];i++)
+			{
+				int w=matchRight[adjacency[i]];
+				if(w<0)
+					found=true;
+				else if(dist[w]==INF)
+				{
+					dist[w]=dist[u]+1;
+					stack[tail++]=w;
+				}
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Looks for an augmenting path from the free left vertex root along the
+	 * layers, and flips it.
+	 */
+	private boolean augment(int root)
+	{
+		int top=0;
+		stack[top++]=root;
+		while(top>0)
+		{
+			int u=stack[top-1];
+			if(it[u]==offsets[u+1])
+			{
+				//dead end
+				dist[u]=INF;
+				top--;
+				continue;
+			}
+			int v=adjacency[it[u]];
+			int w=matchRight[v];
+			if(w<0)
+			{
+				//the current edge of each vertex of the stack is on the path
+				for(int i=top-1;i>=0;i--)
+				{
+					int x=stack[i];
+					int y=adjacency[it[x]];
+					matchRight[y]=x;
+					matchLeft[x]=y;
+				}
+				return true;
+			}
+			if(dist[w]!=INF && dist[w]==dist[u]+1)
+				stack[top++]=w;
+			else
+				it[u]++;
+		}
+		return false;
+	}
+
+	/**
+	 * Computes a minimum vertex cover from the maximum matching (Konig): Z is
+	 * the set of vertices reachable from the free left vertices by alternating
+	 * paths, and the cover is (L\Z) U (R&Z). maxMatching() must be called first.
+	 * @param coverLeft set to true for the left vertices of the cover
+	 * @param coverRight set to true for the right vertices of the cover (must be filled with false)
+	 */
+	void minVertexCover(boolean[] coverLeft, boolean[] coverRight)
+	{
+		boolean[] visited=new boolean[nLeft];
+		int head=0, tail=0;
+		for(int u=0;u<nLeft;u++)
+			if(matchLeft[u]<0)
+			{
+				visited[u]=true;
+				stack[tail++]=u;
+			}
+		while(head<tail)
+		{
+			int u=stack[head++];
+			for(int i=offsets[u];i<offsets[u+1];i++)
+			{
+				int v=adjacency[i];
+				if(!coverRight[v])
+				{
+					coverRight[v]=true;
+					int w=matchRight[v];
+					if(w>=0 && !visited[w])
+					{
+						visited[w]=true;
+						stack[tail++]=w;
+					}
+				}
+			}
+		}
+		for(int u=0;u<nLeft;u++)
+			coverLeft[u]=!visited[u];
+	}
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright University of Orleans - ENSI de Bourges
+ * This software is governed by the CeCILL  license under French law and
+ * abiding by the rules of distribution of free software.  You can  use,
+ * modify and/ or redistribute the software under the terms of the CeCILL
+ * license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info".
+ */
+package agape.algos;
+
+import agape.tools.CompactGraph;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Chromatic number by inclusion-exclusion (Bjorklund and Husfeldt, 2006),
+ * over int bitmasks of the vertices.
+ * The number i(X) of independent sets of G[X] is computed for every subset X
+ * of V in an int array of size 2^n: the independent sets are marked (each one
+ * extends the set without its highest vertex), then the zeta transform over
+ * the subset lattice sums the marks of the subsets of each X. The graph is
+ * k-colorable iff c_k = sum over X of (-1)^(n-|X|) i(X)^k is positive; c_k is
+ * computed modulo two primes close to 2^31 for all k at once, k being bounded
+ * by a first fit coloring given by the caller (see GreedyColoring). A nonzero
+ * residue proves c_k > 0, so that the result is never below the chromatic
+ * number; it would be above only if c_k is a multiple of both primes.
+ * The marking (by highest vertex), each pass of the transform and the sums are
+ * split in blocks of subsets, each block being a task when a ForkJoinPool is
+ * given. Time O(n 2^n + k 2^n), memory 4.2^n bytes.
+ * The isolated vertices are left out (they take any color once another vertex
+ * exists), so that n is the number of vertices having a neighbor.
+ */
+class InclusionExclusionColoring {
+
+	//the subsets are indexed by an int
+	static final int MAX_VERTICES=30;
+
+	//products of two residues fit in a long
+	private static final long P1=2147483647L;
+	private static final long P2=2147483629L;
+
+	//number of subsets handled by a task
+	private static final int BLOCK=1<<14;
+
+	//number of vertices of the graph, isolated ones included
+	private final int vertices;
+	//number of vertices having a neighbor, indexed from 0
+	private final int n;
+	private final int[] neighbors;
+
+	InclusionExclusionColoring(CompactGraph<?> G)
+	{
+		vertices=G.getVertexCount();
+		int[] offsets=G.getOffsets();
+		int[] adjacency=G.getAdjacency();
+		int[] index=new int[vertices];
+		int count=0;
+		for(int v=0;v<vertices;v++)
+			index[v]=offsets[v+1]>offsets[v] ? count++ : -1;
+		n=count;
+		if(n>MAX_VERTICES)
+			throw new IllegalArgumentException("Inclusion-exclusion coloring is limited to "+MAX_VERTICES+" non isolated vertices ("+n+" given)");
+		neighbors=new int[n];
+		for(int v=0;v<vertices;v++)
+			for(int p=offsets[v];p<offsets[v+1];p++)
+				neighbors[index[v]]|=1<<index[adjacency[p]];
+	}
+
+	/**
+	 * Computes the chromatic number.
+	 * @param pool pool running the blocks of subsets in parallel, null for a sequential computation
+	 * @param upper number of colors of a first fit coloring of the graph
+	 * @return chromatic number of the graph
+	 * @throws IllegalStateException if the heap cannot hold the 2^n counts
+	 */
+	int chromaticNumber(ForkJoinPool pool, int upper)
+	{
+		if(n==0)
+			return Math.min(vertices, 1);
+		//a first fit coloring is optimal without edges or with two colors
+		if(upper<=2)
+			return upper;
+		int[] count=independentSetCounts(pool);
+		Sums sums=new Sums(count, upper-1, 0, count.length);
+		run(pool, sums);
+		for(int k=1;k<upper;k++)
+			if(sums.s1[k]!=0 || sums.s2[k]!=0)
+				return k;
+		return upper;
+	}
+
+	/**
+	 * @return i(X) for every subset X, the empty set included
+	 */
+	private int[] independentSetCounts(ForkJoinPool pool)
+	{
+		Runtime runtime=Runtime.getRuntime();
+		long needed=4L<<n, available=runtime.maxMemory()-(runtime.totalMemory()-runtime.freeMemory());
+		if(needed>available)
+			throw new IllegalStateException("Inclusion-exclusion coloring of "+n+" non isolated vertices needs "
+					+(needed>>20)+" MiB of heap ("+(available>>20)+" MiB available, see -Xmx)");
+		int[] f=new int[1<<n];
+		f[0]=1;
+		//X, of highest vertex v, is independent iff X-v is and v has no neighbor in X
+		for(int v=0;v<n;v++)
+		{
+			final int high=1<<v, N=neighbors[v];
+			run(pool, new Blocks(high, high<<1) {
+				void compute(int from, int to)
+				{
+					for(int X=from;X<to;X++)
+						f[X]=f[X^high]!=0 && (N & X)==0 ? 1 : 0;
+				}
+			});
+		}
+		//zeta transform: f[X] becomes the sum of f[Y] over the subsets Y of X
+		for(int v=0;v<n;v++)
+		{
+			final int bit=1<<v;
+			run(pool, new Blocks(0, f.length) {
+				void compute(int from, int to)
+				{
+					for(int X=from;X<to;X++)
+						if((X & bit)!=0)
+							f[X]+=f[X^bit];
+				}
+			});
+		}
+		return f;
+	}
+
+	private static void run(ForkJoinPool pool, Blocks task)
+	{
+		if(pool!=null)
+			pool.invoke(task);
+		else
+			task.compute(task.from, task.to);
+	}
+
+	/**
+	 * Task handling the subsets of [from,to[, split in blocks.
+	 */
+	private static abstract class Blocks extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		final int from;
+		final int to;
+		Blocks(int from, int to)
+		{
+			this.from=from;
+			this.to=to;
+		}
+		abstract void compute(int from, int to);
+		/**
+		 * Copy of the task on [from,to[.
+		 */
+		Blocks part(int from, int to)
+		{
+			Blocks outer=this;
+			return new Blocks(from, to) {
+				void compute(int from, int to) { outer.compute(from, to); }
+			};
+		}
+		/**
+		 * Merges the results of two halves, for the tasks having results.
+		 */
+		void merge(Blocks left, Blocks right) {}
+		@Override
+		protected void compute()
+		{
+			if(to-from<=BLOCK)
+				compute(from, to);
+			else
+			{
+				int middle=(from+to)>>>1;
+				Blocks left=part(from, middle), right=part(middle, to);
+				invokeAll(left, right);
+				merge(left, right);
+			}
+		}
+	}
+
+	/**
+	 * Residues of c_1, ..., c_kmax modulo P1 and P2 over the subsets of [from,to[.
+	 */
+	private class Sums extends Blocks {
+		private static final long serialVersionUID = 1L;
+		private final int[] count;
+		private final int kmax;
+		final long[] s1;
+		final long[] s2;
+		Sums(int[] count, int kmax, int from, int to)
+		{
+			super(from, to);
+			this.count=count;
+			this.kmax=kmax;
+			s1=new long[kmax+1];
+			s2=new long[kmax+1];
+		}
+		@Override
+		Blocks part(int from, int to) { return new Sums(count, kmax, from, to); }
+		@Override
+		void merge(Blocks left, Blocks right)
+		{
+			Sums l=(Sums) left, r=(Sums) right;
+			for(int k=1;k<=kmax;k++)
+			{
+				s1[k]=(l.s1[k]+r.s1[k])%P1;
+				s2[k]=(l.s2[k]+r.s2[k])%P2;
+			}
+		}
+		@Override
+		void compute(int from, int to)
+		{
+			for(int X=from;X<to;X++)
+			{
+				long a=count[X], p1=1, p2=1;
+				boolean minus=((n-Integer.bitCount(X)) & 1)!=0;
+				for(int k=1;k<=kmax;k++)
+				{
+					p1=p1*a%P1;
+					p2=p2*a%P2;
+					//each term is below 2^31: BLOCK terms do not overflow
+					s1[k]+=minus ? P1-p1 : p1;
+					s2[k]+=minus ? P2-p2 : p2;
+				}
+				if(((X-from+1) & (BLOCK-1))==0)
+					reduce();
+			}
+			reduce();
+		}
+		private void reduce()
+		{
+			for(int k=1;k<=kmax;k++)
+			{
+				s1[k]%=P1;
+				s2[k]%=P2;
+			}
+		}
+	}
+}
@@ -311,8 +311,8 @@ public class MIS<V,E> extends Algorithms<V,E> {
       public Set<V> maximuRmIndependentSetFominGrandoniKratsch(Graph<V,E> g)
      {
 
-         //if(tracker!=null)
-           // tracker.increase("FGK"); //tracker operation
+         if(tracker!=null)
+            tracker.increase("FGK"); //tracker operation
 
          //(1)
          int Vsize=g.getVertices().size();
@@ -345,7 +345,7 @@ public class MIS<V,E> extends Algorithms<V,E> {
          V v=getDominatedVertex(g);
          if(v!=null)
          {
-             //if(tracker!=null) tracker.increase("DomV"); //tracker operation
+             if(tracker!=null) tracker.increase("DomV"); //tracker operation
              Graph<V,E> G_v=Operations.copyUndirectedSparseGraph(g);
              G_v.removeVertex(v);
              return maximuRmIndependentSetFominGrandoniKratsch(G_v);
@@ -364,7 +364,7 @@ public class MIS<V,E> extends Algorithms<V,E> {
 
          if(deg2)
          {
-             //if(tracker!=null) tracker.increase("Fold"); //tracker operation
+             if(tracker!=null) tracker.increase("Fold"); //tracker operation
              Set<V> uF=new HashSet<V>();
              HashMap<V,Set<V>> vftable=new  HashMap<V, Set<V>>();
              Set<V> F=maximuRmIndependentSetFominGrandoniKratsch(getFoldingGraph(g, x, vftable,vertexFactory, edgeFactory));
@@ -417,10 +417,10 @@ public class MIS<V,E> extends Algorithms<V,E> {
          S2.add(d);
 
          if(S1.size()>S2.size())
-             { //if(tracker!=null) tracker.increase("M branch("+M.size()+")"); //tracker operation
+             { if(tracker!=null) tracker.increase("M branch("+M.size()+")"); //tracker operation
              return S1;}
          else
-             {  //if(tracker!=null) tracker.increase("Nv branch"); //tracker operation
+             {  if(tracker!=null) tracker.increase("Nv branch"); //tracker operation
              return S2; }
  
      }
@@ -8,6 +8,7 @@
  */
 package agape.algos;
 
+import agape.tools.CompactGraph;
 import agape.tools.Operations;
 import com.google.common.collect.Sets;
 import edu.uci.ics.jung.graph.Graph;
@@ -16,6 +17,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.commons.collections15.Factory;
 
@@ -38,10 +40,196 @@ public class MVC<V,E> extends Algorithms<V,E> {
 
 	private Set<V> VCFinal;
 
+	//if true, algorithms run on a CompactGraph instead of a copy of the JUNG graph
+	private boolean useCompactGraph = true;
+
+	//decision or optimization mode for the branching algorithms
+	private SearchMode mode = SearchMode.OPTIMIZE;
+
+	//pool used by the parallel branching algorithms (null for a sequential search)
+	private ForkJoinPool pool = null;
+	private int cutoffDepth;
+
+	//if true, the graph is kernelized (VCKernel) before the branching algorithms
+	private boolean useKernelization = true;
+	private int kernelVertexCount = -1;
+	private int kernelEdgeCount = -1;
+	private long kernelizationTime;
+	private long branchingTime;
+
+	//lower bounds evaluated at each node of the branching algorithms
+	private VCLowerBound[] lowerBounds = { new VCLowerBound.Degree(), new VCLowerBound.Matching() };
+	private long[] pruneCounts = new long[0];
+
+	//if true, the components of a disconnected graph are solved independently
+	private boolean componentBranching = true;
+
+	//limits of the exact algorithms (0 for none), and budget of the current search
+	private long timeLimit = 0;
+	private long nodeLimit = 0;
+	private SearchBudget budget;
+
+	/**
+	 * Search modes of the branching algorithms (DBS, Buss-Goldsmith, Niedermeier).
+	 * In DECISION mode, the search stops at the first vertex cover of size at
+	 * most k. In OPTIMIZE mode, the search goes on after a cover has been found,
+	 * the budget being tightened to the size of the best cover found minus one
+	 * (branch and bound): the computed cover is then a minimum vertex cover when
+	 * one of size at most k exists.
+	 */
+	public enum SearchMode { DECISION, OPTIMIZE }
+
 	public MVC(Factory<Graph<V,E>> graphFactory) {
 		this.graphFactory = graphFactory;
 	};
 
+	/**
+	 * Chooses the graph representation used by the approximation and branching
+	 * algorithms. By default, the graph is translated into a CompactGraph (int
+	 * vertices, CSR adjacency); otherwise the algorithms work on a copy of the
+	 * JUNG graph made with the graph factory.
+	 * The exact algorithms can also be given a CompactGraph built beforehand:
+	 * it is only read (each search works on its own ReversibleGraph), so that
+	 * the same one can be shared by several calls and threads, and its
+	 * construction is not part of the calls.
+	 * @param b true to use the compact representation
+	 */
+	public void setUseCompactGraph(boolean b) { useCompactGraph = b; }
+
+	/**
+	 * @return true if algorithms run on the compact graph representation
+	 */
+	public boolean isUsingCompactGraph() { return useCompactGraph; }
+
+	/**
+	 * Sets the search mode of the branching algorithms (OPTIMIZE by default).
+	 * Only available with the compact graph representation.
+	 * @param mode DECISION or OPTIMIZE
+	 */
+	public void setSearchMode(SearchMode mode) { this.mode = mode; }
+
+	/**
+	 * @return the search mode of the branching algorithms
+	 */
+	public SearchMode getSearchMode() { return mode; }
+
+	/**
+	 * Runs the branching algorithms (DBS, Buss-Goldsmith, Niedermeier) in
+	 * parallel on a ForkJoinPool. The branches of the nodes of the search tree
+	 * which are at a depth lower than cutoffDepth are explored by distinct tasks,
+	 * deeper nodes are explored sequentially by the task. In DECISION mode, the
+	 * search stops as soon as a task finds a cover of size at most k; in
+	 * OPTIMIZE mode, the tasks share the size of the best cover found.
+	 * Only available with the compact graph representation.
+	 * @param pool pool running the tasks, null for a sequential search
+	 * @param cutoffDepth depth under which the search tree is not split into tasks
+	 */
+	public void setParallel(ForkJoinPool pool, int cutoffDepth)
+	{
+		this.pool = pool;
+		this.cutoffDepth = cutoffDepth;
+	}
+
+	/**
+	 * Enables the kernelization which runs before the branching algorithms
+	 * and the minimum vertex cover solver (enabled by default): degree 0, 1
+	 * and 2 rules (with folding), dominance, crown reduction and LP reduction
+	 * (Nemhauser-Trotter), until none of them applies. The branching
+	 * algorithms then run on the kernel, with the budget decreased by the
+	 * number of vertices put in the cover by the reductions.
+	 * Only available with the compact graph representation.
+	 * @param b true to kernelize the graph
+	 */
+	public void setKernelization(boolean b) { useKernelization = b; }
+
+	/**
+	 * @return true if the graph is kernelized before branching
+	 */
+	public boolean isUsingKernelization() { return useKernelization; }
+
+	/**
+	 * @return number of vertices of the last computed kernel, -1 if no kernel has been computed
+	 */
+	public int getKernelVertexCount() { return kernelVertexCount; }
+
+	/**
+	 * @return number of edges of the last computed kernel, -1 if no kernel has been computed
+	 */
+	public int getKernelEdgeCount() { return kernelEdgeCount; }
+
+	/**
+	 * @return time spent computing the last kernel, in nanoseconds
+	 */
+	public long getKernelizationTime() { return kernelizationTime; }
+
+	/**
+	 * @return time spent by the last branching algorithm (or minimum vertex
+	 * cover search) after the kernelization, in nanoseconds
+	 */
+	public long getBranchingTime() { return branchingTime; }
+
+	/**
+	 * Sets the lower bounds evaluated at each node of the branching algorithms
+	 * and of the minimum vertex cover solver (the degree and matching bounds by
+	 * default; no argument disables the bounds): a node is
+	 * pruned as soon as a bound is greater than the remaining budget, the
+	 * bounds being evaluated in the given order (cheapest first).
+	 * Only available with the compact graph representation.
+	 * @param bounds lower bounds, for instance new VCLowerBound.Degree(),
+	 * new VCLowerBound.CliqueCover(), new VCLowerBound.Matching()
+	 */
+	public void setLowerBounds(VCLowerBound... bounds) { lowerBounds = bounds; }
+
+	/**
+	 * @return number of nodes pruned by each lower bound during the last
+	 * call, in the order given to setLowerBounds
+	 */
+	public long[] getPruneCounts() { return pruneCounts; }
+
+	/**
+	 * Enables the decomposition into connected components in the branching
+	 * algorithms and the minimum vertex cover solver (enabled by default).
+	 * When the remaining graph of a node is not connected, each component but
+	 * the largest is solved by its own search, from the smallest to the
+	 * largest, the budget being split between them; the search goes on with
+	 * the largest component. Components are solved in parallel when the node
+	 * is above the cutoff depth of a parallel search (setParallel), and the
+	 * covers of small components are memoized for the whole search.
+	 * Only available with the compact graph representation.
+	 * @param b true to solve the components independently
+	 */
+	public void setComponentBranching(boolean b) { componentBranching = b; }
+
+	/**
+	 * @return true if the components are solved independently
+	 */
+	public boolean isUsingComponentBranching() { return componentBranching; }
+
+	/**
+	 * Limits the running time of the exact algorithms (brute force, DBS,
+	 * Buss-Goldsmith, Niedermeier, minimum vertex cover). The limit is checked
+	 * cooperatively inside the recursion: when it is exceeded, the search
+	 * stops and isInterrupted() returns true. The answer of the algorithm is
+	 * then false, and minimumVertexCover returns the best cover found so far.
+	 * @param millis time limit in milliseconds, 0 for no limit
+	 */
+	public void setTimeLimit(long millis) { timeLimit = millis; }
+
+	/**
+	 * Limits the number of nodes of the search tree (of enumerated sets for
+	 * the brute force) explored by the exact algorithms, like setTimeLimit.
+	 * @param nodes maximum number of nodes, 0 for no limit
+	 */
+	public void setNodeLimit(long nodes) { nodeLimit = nodes; }
+
+	/**
+	 * @return true if the last exact algorithm has been stopped by the time or node limit
+	 */
+	public boolean isInterrupted() { return budget != null && budget.isExceeded(); }
+
+	//checked at each node of the JUNG branching algorithms
+	private boolean budgetExceeded() { return budget != null && budget.spend(1); }
+
 	/**
 	 * Returns the last computed vertex cover set, null if the called 
 	 * Parameterized algorithms cannot find such a set.
@@ -59,6 +247,89 @@ public class MVC<V,E> extends Algorithms<V,E> {
 	{
 		VCFinal = new HashSet<V>();
 		VCbuf = new HashSet<V>(); // used by branching algorithm (to be initialized once)
+		budget = SearchBudget.start(timeLimit, nodeLimit);
+	}
+
+	private boolean solveCompact(CompactGraph<V> G, int k, int algo)
+	{
+		if(!useKernelization)
+		{
+			CompactMVC<V> engine = new CompactMVC<V>(G);
+			boolean b = search(engine, k, algo);
+			setSolution(engine);
+			return b;
+		}
+		VCKernel<V> kernel = kernelize(G);
+		CompactMVC<Integer> engine = new CompactMVC<Integer>(kernel.getKernel());
+		boolean b = search(engine, k - kernel.getCoverOffset(), algo);
+		if(engine.getBestSize() >= 0)
+			VCFinal = kernel.lift(engine.getBest(), engine.getBestSize());
+		return b;
+	}
+
+	private boolean search(CompactMVC<?> engine, int k, int algo)
+	{
+		engine.setDecision(mode == SearchMode.DECISION);
+		configure(engine);
+		long start = System.nanoTime();
+		boolean b;
+		if(pool != null)
+			b = engine.solveParallel(pool, cutoffDepth, k, algo);
+		else
+			b = engine.solve(k, algo);
+		searched(engine, start);
+		return b;
+	}
+
+	private void minimumCover(CompactMVC<?> engine)
+	{
+		configure(engine);
+		long start = System.nanoTime();
+		engine.minimumCover(CompactMVC.NIEDERMEIER, pool, cutoffDepth);
+		searched(engine, start);
+	}
+
+	private void configure(CompactMVC<?> engine)
+	{
+		engine.setLowerBounds(lowerBounds);
+		engine.setComponentBranching(componentBranching);
+		engine.setBudget(budget);
+		engine.setTracker(tracker);
+	}
+
+	private void searched(CompactMVC<?> engine, long start)
+	{
+		branchingTime = System.nanoTime() - start;
+		pruneCounts = engine.getPruneCounts();
+		if(tracker != null)
+		{
+			tracker.add("branching time (ns)", branchingTime);
+			for(int i = 0; i < pruneCounts.length; i++)
+				tracker.add("pruned by "+lowerBounds[i], pruneCounts[i]);
+		}
+	}
+
+	private VCKernel<V> kernelize(CompactGraph<V> G)
+	{
+		VCKernel<V> kernel = new VCKernel<V>(G);
+		CompactGraph<Integer> K = kernel.reduce();
+		kernelVertexCount = K.getVertexCount();
+		kernelEdgeCount = K.getEdgeCount();
+		kernelizationTime = kernel.getTime();
+		if(tracker != null)
+		{
+			tracker.add("kernelization time (ns)", kernelizationTime);
+			tracker.set("kernel vertices", kernelVertexCount);
+			tracker.set("kernel edges", kernelEdgeCount);
+			kernel.report(tracker);
+		}
+		return kernel;
+	}
+
+	private void setSolution(CompactMVC<V> engine)
+	{
+		if(engine.getBestSize()>0)
+			VCFinal = engine.getGraph().toVertexSet(engine.getBest(), engine.getBestSize());
 	}
 
 
@@ -73,6 +344,14 @@ public class MVC<V,E> extends Algorithms<V,E> {
 
 		initSolution();
 
+		if(useCompactGraph)
+		{
+			CompactMVC<V> engine = new CompactMVC<V>(CompactGraph.fromGraph(g));
+			engine.twoApproximationCover();
+			setSolution(engine);
+			return VCFinal;
+		}
+
 		Graph<V,E> Gp=Operations.copyGraph(g, this.graphFactory);
 
 		while (Gp.getEdgeCount() > 0)
@@ -103,6 +382,14 @@ public class MVC<V,E> extends Algorithms<V,E> {
 
 		initSolution();
 
+		if(useCompactGraph)
+		{
+			CompactMVC<V> engine = new CompactMVC<V>(CompactGraph.fromGraph(g));
+			engine.greedyCoverMaxDegree();
+			setSolution(engine);
+			return VCFinal;
+		}
+
 		Graph<V,E> Gp=Operations.copyGraph(g, this.graphFactory);
 
 		while (Gp.getEdgeCount() > 0)
@@ -117,11 +404,56 @@ public class MVC<V,E> extends Algorithms<V,E> {
 
 
 
+	/**
+	 * Computes a minimum vertex cover of the specified graph.
+	 * The size of the cover is bracketed between the size of a maximal matching
+	 * and the size of the greedy and 2-approximation covers, then a binary search
+	 * over k runs the Niedermeier algorithm on the same compact graph, the
+	 * vertices of degree one being reduced once for all the iterations.
+	 * The graph is kernelized first (see setKernelization). The algorithm
+	 * always works on the compact graph representation, and runs in parallel
+	 * if a pool has been given with setParallel.
+	 * @param g graph
+	 * @return a minimum vertex cover (empty if the graph has no edge)
+	 */
+	public Set<V> minimumVertexCover(Graph<V,E> g)
+	{
+		return minimumVertexCover(CompactGraph.fromGraph(g));
+	}
+
+	/**
+	 * Same as minimumVertexCover(Graph), on a compact graph (see setUseCompactGraph).
+	 * @param G compact graph
+	 * @return a minimum vertex cover (empty if the graph has no edge)
+	 */
+	public Set<V> minimumVertexCover(CompactGraph<V> G)
+	{
+		initSolution();
+		if(!useKernelization)
+		{
+			CompactMVC<V> engine = new CompactMVC<V>(G);
+			minimumCover(engine);
+			setSolution(engine);
+			return VCFinal;
+		}
+		VCKernel<V> kernel = kernelize(G);
+		CompactMVC<Integer> engine = new CompactMVC<Integer>(kernel.getKernel());
+		minimumCover(engine);
+		VCFinal = kernel.lift(engine.getBest(), engine.getBestSize());
+		return VCFinal;
+	}
+
+
 	/**
 	 * Returns true if a vertex cover of size k exists in graph G. 
 	 * The complexity of this method is O(C_k^n) (exhaustive search).
 	 * This algorithm test exhaustively all the combinations of k vertices among n. 
-	 * The principle is to test all the sets of size k: we build recursively these sets by choosing a new vertex
+	 * With the compact graph representation, the sets of size 1, 2, ..., k are
+	 * enumerated in revolving-door order over bitmasks (each set differs from
+	 * the previous one by one vertex in and one out), so that the computed
+	 * cover is a minimum one; the sets are split by their first vertex between
+	 * the tasks of the pool given to setParallel.
+	 * Otherwise, we build recursively these sets by choosing a new vertex
 	 * to add in the set. When all the neighborhood of the set covers the graph, we stop if the size of the set is less 
 	 * than k. 
 	 * @param g graph
@@ -130,13 +462,37 @@ public class MVC<V,E> extends Algorithms<V,E> {
 	 */
 	public boolean kVertexCoverBruteForce(Graph<V,E> g, int k)
 	{
+		if(useCompactGraph)
+			return kVertexCoverBruteForce(CompactGraph.fromGraph(g), k);
 		initSolution();
 		Graph<V,E> g2 = Operations.copyGraph(g, this.graphFactory);
 		return kVertexCoverBruteForce(g2, k, VCFinal, new HashSet<E>(), new HashSet<V>(g2.getVertices()));
 	}
 
+	/**
+	 * Same as kVertexCoverBruteForce(Graph, int), on a compact graph (see setUseCompactGraph).
+	 * @param G compact graph
+	 * @param k vertex cover size
+	 * @return true if G contains a vertex cover of size k, else returns false.
+	 */
+	public boolean kVertexCoverBruteForce(CompactGraph<V> G, int k)
+	{
+		initSolution();
+		BruteForceVC bf = new BruteForceVC(G);
+		bf.setBudget(budget);
+		if(tracker != null)
+			bf.setNodeCounter(tracker.counter("nodes"));
+		int[] C = bf.solve(k, pool);
+		if(C == null)
+			return false;
+		VCFinal = G.toVertexSet(C, C.length);
+		return true;
+	}
+
 	protected boolean kVertexCoverBruteForce(Graph<V,E> G, int k, Set<V> VCcurrent, Set<E> viewed, Set<V> remaining)
 	{
+		if(budgetExceeded()) return false;
+		if(tracker!=null) tracker.increase("nodes"); //tracker operation
 		if (k <= 0 && remaining.size() > 0)
 		{
 			//System.out.println("Cannot cover !");
@@ -200,14 +556,29 @@ public class MVC<V,E> extends Algorithms<V,E> {
 	 */
 	public boolean kVertexCoverDegreeBranchingStrategy(Graph<V,E> g, int k)
 	{
+		if(useCompactGraph)
+			return kVertexCoverDegreeBranchingStrategy(CompactGraph.fromGraph(g), k);
 		initSolution();
 		Graph<V,E> g2 = Operations.copyGraph(g, this.graphFactory);
 		return kVertexCoverDegreeBranchingStrategy(g2, k, VCFinal);
 	}
 
+	/**
+	 * Same as kVertexCoverDegreeBranchingStrategy(Graph, int), on a compact graph (see setUseCompactGraph).
+	 * @param G compact graph
+	 * @param k vertex cover size
+	 * @return true if G contains a vertex cover of size k, else returns false.
+	 */
+	public boolean kVertexCoverDegreeBranchingStrategy(CompactGraph<V> G, int k)
+	{
+		initSolution();
+		return solveCompact(G, k, CompactMVC.DBS);
+	}
+
 	protected boolean kVertexCoverDegreeBranchingStrategy(Graph<V,E> G, int k, Set<V> VCcurrent)
 	{
-		//if(tracker!=null) tracker.increase("VC"); //tracker operation
+		if(budgetExceeded()) return false;
+		if(tracker!=null) tracker.increase("nodes"); //tracker operation
 
 
 		int nbe=G.getEdgeCount();
@@ -220,7 +591,7 @@ public class MVC<V,E> extends Algorithms<V,E> {
 			return true;
 		}
 
-		if(nbe>= k*G.getVertexCount()) return false;
+		if(nbe > k*Operations.getMaxDeg(G)) return false;
 
 		V vone=Operations.getDegVertex(G,1);
 		if(vone!=null)
@@ -321,11 +692,25 @@ public class MVC<V,E> extends Algorithms<V,E> {
 	 * @return true if G contains a vertex cover of size k, else returns false.
 	 */
 	public boolean kVertexCoverBussGoldsmith(Graph<V,E> g, int k) {
+		if(useCompactGraph)
+			return kVertexCoverBussGoldsmith(CompactGraph.fromGraph(g), k);
 		initSolution();
 		Graph<V,E> g2 = Operations.copyGraph(g, this.graphFactory);
 		return kVertexCoverKernel(g2, k, VCFinal);
 	}
 
+	/**
+	 * Same as kVertexCoverBussGoldsmith(Graph, int), on a compact graph (see setUseCompactGraph).
+	 * @param G compact graph
+	 * @param k vertex cover size
+	 * @return true if G contains a vertex cover of size k, else returns false.
+	 */
+	public boolean kVertexCoverBussGoldsmith(CompactGraph<V> G, int k)
+	{
+		initSolution();
+		return solveCompact(G, k, CompactMVC.KERNEL);
+	}
+
 	/**
 	 * Returns true if a vertex cover of size k exists in graph G. 
 	 * This method reduces a graph instance in polynomial time in order to find
@@ -338,7 +723,8 @@ public class MVC<V,E> extends Algorithms<V,E> {
 	 */
 	protected boolean kVertexCoverKernel(Graph<V,E> G, int k, Set<V> VCfinal)
 	{
-		// if(tracker!=null) tracker.increase("VC"); //tracker operation
+		if(budgetExceeded()) return false;
+		if(tracker!=null) tracker.increase("nodes"); //tracker operation
 
 		int nbe=G.getEdgeCount();
 
@@ -350,7 +736,7 @@ public class MVC<V,E> extends Algorithms<V,E> {
 			return true;
 		}
 
-		if(nbe>= k*G.getVertexCount()) return false;
+		if(nbe > k*Operations.getMaxDeg(G)) return false;
 
 		Set<V> K=new HashSet<V>();
 		V vmin = Operations.getMinDegVertex(G);
@@ -428,14 +814,29 @@ public class MVC<V,E> extends Algorithms<V,E> {
 	 */
 	public boolean kVertexCoverNiedermeier(Graph<V,E> g, int k)
 	{ 
+		if(useCompactGraph)
+			return kVertexCoverNiedermeier(CompactGraph.fromGraph(g), k);
 		initSolution();
 		Graph<V,E> g2 = Operations.copyGraph(g, this.graphFactory);
 		return kVertexCoverNiedermeier(g2, k, VCFinal);
 	}
 
+	/**
+	 * Same as kVertexCoverNiedermeier(Graph, int), on a compact graph (see setUseCompactGraph).
+	 * @param G compact graph
+	 * @param k vertex cover size
+	 * @return true if G contains a vertex cover of size k, else returns false.
+	 */
+	public boolean kVertexCoverNiedermeier(CompactGraph<V> G, int k)
+	{
+		initSolution();
+		return solveCompact(G, k, CompactMVC.NIEDERMEIER);
+	}
+
 	protected boolean kVertexCoverNiedermeier(Graph<V,E> g, int k, Set<V> VCfinal)
 	{
-		// if(tracker!=null) tracker.increase("VC"); //tracker operation
+		if(budgetExceeded()) return false;
+		if(tracker!=null) tracker.increase("nodes"); //tracker operation
 
 		int nbe=g.getEdgeCount();
 
@@ -447,7 +848,7 @@ public class MVC<V,E> extends Algorithms<V,E> {
 			return true;
 		}
 
-		if(nbe>= k*g.getVertexCount()) return false;
+		if(nbe > k*Operations.getMaxDeg(g)) return false;
 
 
 		if(Operations.getMinDeg(g)==0)
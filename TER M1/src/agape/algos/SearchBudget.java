@@ -0,0 +1,71 @@
+/*
+ * Copyright University of Orleans - ENSI de Bourges
+ * This software is governed by the CeCILL  license under French law and
+ * abiding by the rules of distribution of free software.  You can  use,
+ * modify and/ or redistribute the software under the terms of the CeCILL
+ * license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info".
+ */
+package agape.algos;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time and node limits of a search, shared by all its tasks. The searches
+ * check it cooperatively: once a limit is exceeded, every check returns true
+ * and the search unwinds, its result being meaningless.
+ * The nodes are counted by batches (spend), so that the clock is read and the
+ * shared counter updated only once per batch.
+ */
+class SearchBudget {
+
+	//number of nodes a search explores between two calls to spend()
+	static final int BATCH=256;
+
+	private final long deadline;
+	private final long maxNodes;
+	private final LongAdder nodes=new LongAdder();
+	private volatile boolean exceeded;
+
+	/**
+	 * @param timeLimit time limit in milliseconds, 0 for none
+	 * @param nodeLimit maximum number of nodes, 0 for none
+	 */
+	private SearchBudget(long timeLimit, long nodeLimit)
+	{
+		deadline=timeLimit>0 ? System.nanoTime()+timeLimit*1000000L : Long.MAX_VALUE;
+		maxNodes=nodeLimit>0 ? nodeLimit : Long.MAX_VALUE;
+	}
+
+	/**
+	 * @param timeLimit time limit in milliseconds, 0 for none
+	 * @param nodeLimit maximum number of nodes, 0 for none
+	 * @return a budget starting now, null if there is no limit
+	 */
+	static SearchBudget start(long timeLimit, long nodeLimit)
+	{
+		if(timeLimit<=0 && nodeLimit<=0)
+			return null;
+		return new SearchBudget(timeLimit, nodeLimit);
+	}
+
+	/**
+	 * Counts explored nodes and checks the limits.
+	 * @param n number of nodes explored since the last call
+	 * @return true if a limit is exceeded
+	 */
+	boolean spend(long n)
+	{
+		if(exceeded)
+			return true;
+		nodes.add(n);
+		if(nodes.sum()>maxNodes || System.nanoTime()>deadline)
+			exceeded=true;
+		return exceeded;
+	}
+
+	/**
+	 * @return true if a limit has been exceeded
+	 */
+	boolean isExceeded() { return exceeded; }
+}
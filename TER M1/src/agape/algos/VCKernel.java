@@ -0,0 +1,569 @@
+/*
+ * Copyright University of Orleans - ENSI de Bourges
+ * This software is governed by the CeCILL  license under French law and
+ * abiding by the rules of distribution of free software.  You can  use,
+ * modify and/ or redistribute the software under the terms of the CeCILL
+ * license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info".
+ */
+package agape.algos;
+
+import agape.test.Tracker;
+import agape.tools.CompactGraph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Kernelization of the vertex cover problem, independent of k. The following
+ * reductions are applied until none of them changes the graph:
+ * <ul>
+ * <li>degree 0: the vertex is removed,</li>
+ * <li>degree 1: its neighbor is put in the cover,</li>
+ * <li>degree 2: if its neighbors a and b are adjacent they are put in the
+ * cover, else v, a and b are folded into a single vertex (the cover size
+ * decreases by one),</li>
+ * <li>dominance: if N[u] is included in N[v] for an edge u-v, v is put in the cover,</li>
+ * <li>crown reduction (Abu-Khzam et al.): the head of a crown is put in the
+ * cover and the crown is removed,</li>
+ * <li>LP reduction (Nemhauser-Trotter): the half-integral optimum of the LP
+ * relaxation is computed with a maximum matching of the bipartite double
+ * cover (Hopcroft-Karp); vertices of value 1 are put in the cover, vertices
+ * of value 0 are removed. At most 2*OPT vertices remain.</li>
+ * </ul>
+ * A minimum cover of the graph is lift(C) for any minimum cover C of the kernel,
+ * and its size is |C|+getCoverOffset().
+ * @param <V> Vertices type
+ */
+class VCKernel<V> {
+
+	private final CompactGraph<V> graph;
+	private final int n;
+
+	//working graph: adjacency lists may contain removed vertices, which are filtered lazily
+	private final int[][] adj;
+	private final int[] adjSize;
+	private final int[] deg;
+	private final boolean[] removed;
+	private int vertexCount;
+	private int edgeCount;
+
+	//vertices put in the cover
+	private final int[] cover;
+	private int coverSize;
+	//folded vertices, stored as triples v,a,b (v stands for a and b in the reduced graph)
+	private int[] folds;
+	private int foldsSize;
+
+	//vertices whose degree has decreased
+	private final int[] queue;
+	private final boolean[] queued;
+	private int queueSize;
+
+	private final int[] stamp;
+	private int currentStamp;
+
+	private CompactGraph<Integer> kernel;
+	private long time;
+
+	//number of applications of each rule
+	private int degreeRules;
+	private int folding;
+	private int dominance;
+	private int crown;
+	private int lp;
+
+	VCKernel(CompactGraph<V> graph)
+	{
+		this.graph=graph;
+		n=graph.getVertexCount();
+		int[] offsets=graph.getOffsets();
+		int[] adjacency=graph.getAdjacency();
+		adj=new int[n][];
+		adjSize=new int[n];
+		deg=new int[n];
+		for(int v=0;v<n;v++)
+		{
+			adj[v]=Arrays.copyOfRange(adjacency, offsets[v], offsets[v+1]);
+			adjSize[v]=deg[v]=adj[v].length;
+		}
+		removed=new boolean[n];
+		vertexCount=n;
+		edgeCount=graph.getEdgeCount();
+		cover=new int[n];
+		folds=new int[16];
+		queue=new int[n];
+		queued=new boolean[n];
+		stamp=new int[n];
+	}
+
+	/**
+	 * Applies the reductions until a fixpoint is reached and builds the kernel.
+	 * @return the kernel, whose vertices are the ids of the remaining vertices
+	 */
+	CompactGraph<Integer> reduce()
+	{
+		long start=System.nanoTime();
+		for(int v=0;v<n;v++)
+			enqueue(v);
+		boolean changed=true;
+		while(changed)
+		{
+			degreeRules();
+			changed=dominance() || crown() || lp();
+		}
+		kernel=buildKernel();
+		time=System.nanoTime()-start;
+		return kernel;
+	}
+
+	/**
+	 * @return the kernel computed by reduce()
+	 */
+	CompactGraph<Integer> getKernel() { return kernel; }
+
+	/**
+	 * @return number of vertices which the reductions have put in the cover
+	 * (one for each folding), to be added to the size of a cover of the kernel
+	 */
+	int getCoverOffset() { return coverSize+foldsSize/3; }
+
+	/**
+	 * @return time spent in reduce(), in nanoseconds
+	 */
+	long getTime() { return time; }
+
+	/**
+	 * @return a description of the number of applications of each rule
+	 */
+	String getStatistics()
+	{
+		return "degree="+degreeRules+" folding="+folding+" dominance="+dominance+" crown="+crown+" lp="+lp;
+	}
+
+	/**
+	 * Adds the number of applications of each rule to the counters of a tracker.
+	 */
+	void report(Tracker tracker)
+	{
+		tracker.add("kernel degree", degreeRules);
+		tracker.add("kernel folding", folding);
+		tracker.add("kernel dominance", dominance);
+		tracker.add("kernel crown", crown);
+		tracker.add("kernel lp", lp);
+	}
+
+	/**
+	 * Translates a cover of the kernel into a cover of the original graph.
+	 * @param C vertex ids of the kernel
+	 * @param size number of ids in C
+	 * @return the cover of the original graph
+	 */
+	Set<V> lift(int[] C, int size)
+	{
+		boolean[] in=new boolean[n];
+		for(int i=0;i<coverSize;i++)
+			in[cover[i]]=true;
+		for(int i=0;i<size;i++)
+			in[kernel.getVertex(C[i])]=true;
+		//unfolds in reverse order
+		for(int i=foldsSize-3;i>=0;i-=3)
+		{
+			int v=folds[i];
+			if(in[v])
+			{
+				in[v]=false;
+				in[folds[i+1]]=true;
+				in[folds[i+2]]=true;
+			}
+			else
+				in[v]=true;
+		}
+		int[] S=new int[n];
+		int s=0;
+		for(int v=0;v<n;v++)
+			if(in[v])
+				S[s++]=v;
+		return graph.toVertexSet(S, s);
+	}
+
+	/*
+	 * Working graph
+	 */
+
+	private void enqueue(int v)
+	{
+		if(!queued[v])
+		{
+			queued[v]=true;
+			queue[queueSize++]=v;
+		}
+	}
+
+	/**
+	 * Removes the deleted vertices from the adjacency list of v.
+	 * @return the degree of v
+	 */
+	private int compact(int v)
+	{
+		int[] A=adj[v];
+		int s=0;
+		for(int i=0;i<adjSize[v];i++)
+			if(!removed[A[i]])
+				A[s++]=A[i];
+		adjSize[v]=s;
+		return s;
+	}
+
+	private void removeVertex(int v)
+	{
+		removed[v]=true;
+		vertexCount--;
+		edgeCount-=deg[v];
+		int[] A=adj[v];
+		for(int i=0;i<adjSize[v];i++)
+		{
+			int u=A[i];
+			if(!removed[u])
+			{
+				deg[u]--;
+				enqueue(u);
+			}
+		}
+	}
+
+	private void take(int v)
+	{
+		cover[coverSize++]=v;
+		removeVertex(v);
+	}
+
+	private void addArc(int u, int v)
+	{
+		if(adjSize[u]==adj[u].length)
+			adj[u]=Arrays.copyOf(adj[u], Math.max(4, 2*adjSize[u]));
+		adj[u][adjSize[u]++]=v;
+	}
+
+	/*
+	 * Reductions
+	 */
+
+	/**
+	 * Degree 0, 1 and 2 rules, applied to the vertices whose degree has
+	 * decreased until none can be applied.
+	 */
+	private void degreeRules()
+	{
+		while(queueSize>0)
+		{
+			int v=queue[--queueSize];
+			queued[v]=false;
+			if(removed[v] || deg[v]>2)
+				continue;
+			compact(v);
+			if(deg[v]==0)
+			{
+				removeVertex(v);
+				degreeRules++;
+			}
+			else if(deg[v]==1)
+			{
+				take(adj[v][0]);
+				degreeRules++;
+			}
+			else
+			{
+				int a=adj[v][0];
+				int b=adj[v][1];
+				compact(a);
+				compact(b);
+				if(adjSize[a]<=adjSize[b] ? contains(a, b) : contains(b, a))
+				{
+					take(a);
+					take(b);
+					degreeRules++;
+				}
+				else
+					fold(v, a, b);
+			}
+		}
+	}
+
+	private boolean contains(int u, int v)
+	{
+		int[] A=adj[u];
+		for(int i=0;i<adjSize[u];i++)
+			if(A[i]==v)
+				return true;
+		return false;
+	}
+
+	/**
+	 * Folds v and its two non adjacent neighbors a and b: v becomes adjacent
+	 * to N(a) U N(b) - {v}, and a and b are removed.
+	 */
+	private void fold(int v, int a, int b)
+	{
+		currentStamp++;
+		stamp[v]=stamp[a]=stamp[b]=currentStamp;
+		int s=0;
+		int[] N=new int[adjSize[a]+adjSize[b]];
+		for(int x : new int[]{a, b})
+			for(int i=0;i<adjSize[x];i++)
+			{
+				int u=adj[x][i];
+				if(stamp[u]!=currentStamp)
+				{
+					stamp[u]=currentStamp;
+					N[s++]=u;
+				}
+			}
+		removed[v]=true; //v is not a neighbor of the remaining vertices anymore
+		removeVertex(a);
+		removeVertex(b);
+		removed[v]=false;
+		adj[v]=N;
+		adjSize[v]=s;
+		for(int i=0;i<s;i++)
+		{
+			addArc(N[i], v);
+			deg[N[i]]++;
+		}
+		deg[v]=s;
+		edgeCount+=s;
+		enqueue(v);
+
+		if(foldsSize+3>folds.length)
+			folds=Arrays.copyOf(folds, 2*folds.length);
+		folds[foldsSize++]=v;
+		folds[foldsSize++]=a;
+		folds[foldsSize++]=b;
+		folding++;
+	}
+
+	/**
+	 * Dominance rule.
+	 * @return true if a vertex has been put in the cover
+	 */
+	private boolean dominance()
+	{
+		boolean changed=false;
+		for(int v=0;v<n;v++)
+		{
+			if(removed[v])
+				continue;
+			int d=compact(v);
+			currentStamp++;
+			stamp[v]=currentStamp;
+			for(int i=0;i<d;i++)
+				stamp[adj[v][i]]=currentStamp;
+			for(int i=0;i<d;i++)
+			{
+				int u=adj[v][i];
+				if(deg[u]>d)
+					continue;
+				compact(u);
+				boolean dominated=true;
+				for(int j=0;j<adjSize[u] && dominated;j++)
+					dominated=stamp[adj[u][j]]==currentStamp;
+				if(dominated)
+				{
+					//N[u] is included in N[v]
+					take(v);
+					dominance++;
+					changed=true;
+					break;
+				}
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * Crown reduction: O is the set of the vertices left free by a maximal
+	 * matching, and M a maximum matching between O and N(O). Starting from
+	 * the vertices of O which are free in M, I is extended with the vertices
+	 * matched with N(I) until it is stable; (I,N(I)) is then a crown.
+	 * @return true if a crown has been found
+	 */
+	private boolean crown()
+	{
+		//maximal matching
+		boolean[] matched=new boolean[n];
+		for(int v=0;v<n;v++)
+			if(!removed[v] && !matched[v])
+			{
+				compact(v);
+				for(int i=0;i<adjSize[v];i++)
+					if(!matched[adj[v][i]])
+					{
+						matched[v]=matched[adj[v][i]]=true;
+						break;
+					}
+			}
+
+		//bipartite graph between O (left) and N(O) (right)
+		int[] left=new int[n];
+		int[] right=new int[n];
+		int[] index=new int[n];
+		Arrays.fill(index, -1);
+		int nl=0, nr=0, arcs=0;
+		for(int v=0;v<n;v++)
+			if(!removed[v] && !matched[v])
+			{
+				left[nl++]=v;
+				arcs+=adjSize[v];
+				for(int i=0;i<adjSize[v];i++)
+				{
+					int u=adj[v][i];
+					if(index[u]<0)
+					{
+						index[u]=nr;
+						right[nr++]=u;
+					}
+				}
+			}
+		if(nl==0)
+			return false;
+		int[] offsets=new int[nl+1];
+		int[] adjacency=new int[arcs];
+		for(int i=0;i<nl;i++)
+		{
+			int v=left[i];
+			offsets[i+1]=offsets[i]+adjSize[v];
+			for(int j=0;j<adjSize[v];j++)
+				adjacency[offsets[i]+j]=index[adj[v][j]];
+		}
+		HopcroftKarp M=new HopcroftKarp(nl, nr, offsets, adjacency);
+		M.maxMatching();
+		int[] matchLeft=M.getMatchLeft();
+		int[] matchRight=M.getMatchRight();
+
+		boolean[] inI=new boolean[nl];
+		boolean[] inH=new boolean[nr];
+		int[] stack=new int[nl];
+		int top=0;
+		boolean allMatched=true;
+		for(int j=0;j<nr && allMatched;j++)
+			allMatched=matchRight[j]>=0;
+		for(int i=0;i<nl;i++)
+			if(allMatched || matchLeft[i]<0)
+			{
+				inI[i]=true;
+				stack[top++]=i;
+			}
+		while(top>0)
+		{
+			int i=stack[--top];
+			for(int p=offsets[i];p<offsets[i+1];p++)
+			{
+				int j=adjacency[p];
+				if(!inH[j])
+				{
+					inH[j]=true;
+					int w=matchRight[j];
+					if(w>=0 && !inI[w])
+					{
+						inI[w]=true;
+						stack[top++]=w;
+					}
+				}
+			}
+		}
+
+		boolean changed=false;
+		for(int j=0;j<nr;j++)
+			if(inH[j])
+			{
+				take(right[j]);
+				changed=true;
+			}
+		for(int i=0;i<nl;i++)
+			if(inI[i])
+			{
+				removeVertex(left[i]);
+				changed=true;
+			}
+		if(changed)
+			crown++;
+		return changed;
+	}
+
+	/**
+	 * LP reduction (Nemhauser-Trotter), computed on the bipartite double
+	 * cover: left and right copies of each vertex, u_L-v_R and v_L-u_R for
+	 * each edge u-v. The value of v in the half-integral optimum of the LP
+	 * relaxation is the number of copies of v in a minimum vertex cover of the
+	 * double cover, divided by two.
+	 * @return true if the graph has been reduced
+	 */
+	private boolean lp()
+	{
+		int[] ids=new int[n];
+		int[] vertices=new int[vertexCount];
+		int nv=0, arcs=0;
+		for(int v=0;v<n;v++)
+			if(!removed[v])
+			{
+				ids[v]=nv;
+				vertices[nv++]=v;
+				arcs+=compact(v);
+			}
+		if(nv==0)
+			return false;
+		int[] offsets=new int[nv+1];
+		int[] adjacency=new int[arcs];
+		for(int i=0;i<nv;i++)
+		{
+			int v=vertices[i];
+			offsets[i+1]=offsets[i]+adjSize[v];
+			for(int j=0;j<adjSize[v];j++)
+				adjacency[offsets[i]+j]=ids[adj[v][j]];
+		}
+		HopcroftKarp M=new HopcroftKarp(nv, nv, offsets, adjacency);
+		M.maxMatching();
+		boolean[] coverLeft=new boolean[nv];
+		boolean[] coverRight=new boolean[nv];
+		M.minVertexCover(coverLeft, coverRight);
+
+		boolean changed=false;
+		for(int i=0;i<nv;i++)
+			if(coverLeft[i] && coverRight[i])
+			{
+				take(vertices[i]);
+				changed=true;
+			}
+		for(int i=0;i<nv;i++)
+			if(!coverLeft[i] && !coverRight[i] && !removed[vertices[i]])
+			{
+				removeVertex(vertices[i]);
+				changed=true;
+			}
+		if(changed)
+			lp++;
+		return changed;
+	}
+
+	private CompactGraph<Integer> buildKernel()
+	{
+		ArrayList<Integer> vertices=new ArrayList<Integer>(vertexCount);
+		int[] ids=new int[n];
+		for(int v=0;v<n;v++)
+			if(!removed[v])
+			{
+				ids[v]=vertices.size();
+				vertices.add(v);
+			}
+		int[][] neighbors=new int[vertices.size()][];
+		for(int i=0;i<neighbors.length;i++)
+		{
+			int v=vertices.get(i);
+			int d=compact(v);
+			neighbors[i]=new int[d];
+			for(int j=0;j<d;j++)
+				neighbors[i][j]=ids[adj[v][j]];
+		}
+		return CompactGraph.fromNeighbors(vertices, neighbors);
+	}
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright University of Orleans - ENSI de Bourges
+ * This software is governed by the CeCILL  license under French law and
+ * abiding by the rules of distribution of free software.  You can  use,
+ * modify and/ or redistribute the software under the terms of the CeCILL
+ * license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info".
+ */
+package agape.algos;
+
+import agape.tools.ReversibleGraph;
+import java.util.Arrays;
+
+/**
+ * Lower bound of the size of a minimum vertex cover, evaluated by the
+ * branching algorithms of MVC at each node of the search tree: the node is
+ * pruned when the bound is greater than the remaining budget k.
+ * A bound is initialized once on the graph at the root of the search, then
+ * evaluated on subgraphs of it (the search only deletes vertices), so that
+ * it can keep a state from one node to the next: the bounds having a state
+ * listen to the deletions and restorations of the graph
+ * (ReversibleGraph.Listener), so that a node costs O(changes since the
+ * previous node) instead of O(n).
+ * Three bounds are provided: Degree, Matching and CliqueCover.
+ */
+public interface VCLowerBound {
+
+    /**
+     * Called once before the search.
+     * @param g graph at the root of the search
+     */
+    void init(ReversibleGraph g);
+
+    /**
+     * Computes a lower bound of the size of a minimum vertex cover of g.
+     * The computation may stop as soon as the bound is greater than k.
+     * @param g remaining graph (the graph given to init or to copy)
+     * @param k remaining budget
+     * @return a lower bound
+     */
+    int lowerBound(ReversibleGraph g, int k);
+
+    /**
+     * @param g copy of the current graph, used by another task of a parallel search
+     * @return a bound with the same state, evaluated on g
+     */
+    VCLowerBound copy(ReversibleGraph g);
+
+
+    /**
+     * m/maxdeg: each vertex of the cover covers at most maxdeg edges. O(1).
+     */
+    public static class Degree implements VCLowerBound {
+
+        public void init(ReversibleGraph g) {}
+
+        public int lowerBound(ReversibleGraph g, int k)
+        {
+            int d=g.getMaxDeg();
+            return d<=0 ? 0 : (g.getEdgeCount()+d-1)/d;
+        }
+
+        public VCLowerBound copy(ReversibleGraph g) { return this; }
+
+        public String toString() { return "degree"; }
+    }
+
+
+    /**
+     * Size of a maximal matching: the cover contains one endpoint of each
+     * edge of the matching. The matching is kept from one node to the next:
+     * when a matched vertex is deleted, its edge leaves the matching and its
+     * mate becomes an orphan; at the next node, only the orphans look for a
+     * free neighbor. The changes of the matching are recorded with the
+     * position of the trail of the graph at which they were made, so that
+     * they are undone with the deletions that caused them.
+     */
+    public static class Matching implements VCLowerBound, ReversibleGraph.Listener {
+
+        private ReversibleGraph g;
+        private int[] mate;
+        private int matched;
+        //changes of the matching, by 3 ints: position of the trail of the graph,
+        //then u, w for the edge u-w added to the matching, ~u, w for the edge removed
+        private int[] log;
+        private int logSize;
+        //free vertices which may have a free neighbor
+        private int[] orphans;
+        private int orphanCount;
+
+        public void init(ReversibleGraph g)
+        {
+            this.g=g;
+            int n=g.size();
+            mate=new int[n];
+            Arrays.fill(mate, -1);
+            matched=0;
+            log=new int[48];
+            logSize=0;
+            orphans=new int[Math.max(16, n)];
+            orphanCount=0;
+            for(int v=n-1;v>=0;v--)
+                if(!g.isRemoved(v))
+                    orphans[orphanCount++]=v;
+            g.addListener(this);
+        }
+
+        public int lowerBound(ReversibleGraph g, int k)
+        {
+            int[] offsets=g.getOffsets();
+            int[] adjacency=g.getAdjacency();
+            //the orphans left when m>k are handled at the next node
+            while(orphanCount>0 && matched<=k)
+            {
+                int u=orphans[--orphanCount];
+                if(g.isRemoved(u) || mate[u]>=0)
+                    continue;
+                for(int i=offsets[u];i<offsets[u+1];i++)
+                    if(g.isActive(i) && mate[adjacency[i]]<0)
+                    {
+                        match(u, adjacency[i]);
+                        break;
+                    }
+            }
+            return matched;
+        }
+
+        public void vertexRemoved(int v)
+        {
+            int w=mate[v];
+            if(w>=0)
+            {
+                unmatch(v, w);
+                orphan(w);
+            }
+        }
+
+        public void vertexRestored(int v) { rollback(g.mark()); }
+
+        public void edgeRemoved(int u, int v)
+        {
+            if(mate[u]==v)
+            {
+                unmatch(u, v);
+                orphan(u);
+                orphan(v);
+            }
+        }
+
+        public void edgeRestored(int u, int v) { rollback(g.mark()); }
+
+        private void match(int u, int w)
+        {
+            mate[u]=w;
+            mate[w]=u;
+            matched++;
+            record(u, w);
+        }
+
+        private void unmatch(int u, int w)
+        {
+            mate[u]=-1;
+            mate[w]=-1;
+            matched--;
+            record(~u, w);
+        }
+
+        private void record(int a, int b)
+        {
+            if(logSize+3>log.length)
+                log=Arrays.copyOf(log, 2*log.length);
+            log[logSize++]=g.mark();
+            log[logSize++]=a;
+            log[logSize++]=b;
+        }
+
+        /**
+         * Undoes the changes of the matching made after the given position of the trail.
+         */
+        private void rollback(int position)
+        {
+            while(logSize>0 && log[logSize-3]>position)
+            {
+                int b=log[--logSize], a=log[--logSize];
+                logSize--;
+                if(a>=0)
+                {
+                    //a was an orphan when it was matched
+                    mate[a]=-1;
+                    mate[b]=-1;
+                    matched--;
+                    orphan(a);
+                    orphan(b);
+                }
+                else
+                {
+                    mate[~a]=b;
+                    mate[b]=~a;
+                    matched++;
+                }
+            }
+        }
+
+        private void orphan(int v)
+        {
+            if(orphanCount==orphans.length)
+                orphans=Arrays.copyOf(orphans, 2*orphans.length);
+            orphans[orphanCount++]=v;
+        }
+
+        public VCLowerBound copy(ReversibleGraph g)
+        {
+            Matching b=new Matching();
+            b.g=g;
+            b.mate=mate.clone();
+            b.matched=matched;
+            b.log=new int[48];
+            b.orphans=Arrays.copyOf(orphans, Math.max(16, orphanCount));
+            b.orphanCount=orphanCount;
+            g.addListener(b);
+            return b;
+        }
+
+        public String toString() { return "matching"; }
+    }
+
+
+    /**
+     * Clique cover: if the vertices are partitioned into t cliques, a cover
+     * contains all but one vertex of each clique, i.e. at least n-t vertices.
+     * The partition is computed greedily at the root; deleting vertices keeps
+     * cliques, so that the bound at a node is the number of remaining vertices
+     * minus the number of cliques having a remaining vertex. These cliques are
+     * counted as the vertices are deleted and restored, so that a node costs O(1).
+     */
+    public static class CliqueCover implements VCLowerBound, ReversibleGraph.Listener {
+
+        //clique of each vertex, -1 for the vertices deleted before init()
+        private int[] clique;
+        //number of remaining vertices of each clique
+        private int[] live;
+        //number of cliques having a remaining vertex, a vertex deleted before init() being a clique by itself
+        private int t;
+
+        public void init(ReversibleGraph g)
+        {
+            int n=g.size();
+            clique=new int[n];
+            int[] stamp=new int[n];
+            int currentStamp=0;
+            Arrays.fill(clique, -1);
+            int[] offsets=g.getOffsets();
+            int[] adjacency=g.getAdjacency();
+            //vertices of high degree are placed first
+            int[] sizes=new int[n];
+            int cliques=0;
+            Integer[] order=new Integer[n];
+            for(int v=0;v<n;v++) order[v]=v;
+            Arrays.sort(order, (a, b) -> (g.isRemoved(b) ? -1 : g.degree(b))-(g.isRemoved(a) ? -1 : g.degree(a)));
+            int[] count=new int[n];
+            for(int v : order)
+            {
+                if(g.isRemoved(v))
+                    continue;
+                //number of neighbors of v in each clique
+                currentStamp++;
+                int best=-1;
+                for(int i=offsets[v];i<offsets[v+1];i++)
+                {
+                    int c=g.isActive(i) ? clique[adjacency[i]] : -1;
+                    if(c<0) continue;
+                    if(stamp[c]!=currentStamp) { stamp[c]=currentStamp; count[c]=0; }
+                    if(++count[c]==sizes[c] && (best<0 || sizes[c]>sizes[best]))
+                        best=c;
+                }
+                if(best<0)
+                    best=cliques++;
+                sizes[best]++;
+                clique[v]=best;
+            }
+            live=Arrays.copyOf(sizes, cliques);
+            t=cliques;
+            g.addListener(this);
+        }
+
+        public int lowerBound(ReversibleGraph g, int k)
+        {
+            return g.getVertexCount()-t;
+        }
+
+        public void vertexRemoved(int v)
+        {
+            int c=clique[v];
+            if(c<0 || --live[c]==0)
+                t--;
+        }
+
+        public void vertexRestored(int v)
+        {
+            int c=clique[v];
+            if(c<0 || live[c]++==0)
+                t++;
+        }
+
+        //the search only deletes vertices: the partition is not valid after a deletion of edge
+        public void edgeRemoved(int u, int v) {}
+
+        public void edgeRestored(int u, int v) {}
+
+        public VCLowerBound copy(ReversibleGraph g)
+        {
+            CliqueCover b=new CliqueCover();
+            b.clique=clique;
+            b.live=live.clone();
+            b.t=t;
+            g.addListener(b);
+            return b;
+        }
+
+        public String toString() { return "clique cover"; }
+    }
+}
\ No newline at end of file
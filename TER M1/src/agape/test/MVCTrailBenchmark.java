@@ -0,0 +1,77 @@
+/*
+ * Copyright University of Orleans - ENSI de Bourges.
+ * Source code under CeCILL license.
+ */
+package agape.test;
+
+import java.lang.management.ManagementFactory;
+
+import agape.algos.MVC;
+import agape.generators.RandGenerator;
+import agape.tutorials.UndirectedGraphFactoryForStringInteger;
+import edu.uci.ics.jung.graph.Graph;
+
+/**
+ * Compares the memory allocated by the branching algorithms of MVC when they
+ * work on a copy of the JUNG graph (subGraph/mergeGraph at each branch) and
+ * when they work on the compact graph with its trail. Kernelization, lower
+ * bounds and component branching are turned off, so that both searches
+ * explore the same branching tree.
+ * Usage: MVCTrailBenchmark [n] [p] [runs]
+ */
+public class MVCTrailBenchmark {
+
+    private static final String[] ALGOS = {"DBS", "BussGoldsmith", "Niedermeier"};
+
+    public static void main(String[] args) {
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+        double p = args.length > 1 ? Double.parseDouble(args[1]) : 0.1;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        UndirectedGraphFactoryForStringInteger factory = new UndirectedGraphFactoryForStringInteger();
+        Graph<String, Integer> g = RandGenerator.generateErdosRenyiGraph(
+                factory, factory.vertexFactory, factory.edgeFactory, n, p);
+
+        MVC<String, Integer> mvc = new MVC<String, Integer>(factory);
+        int k = mvc.greedyCoverMaxDegree(g).size();
+        System.out.println("Erdos Renyi graph n=" + n + " p=" + p + " m=" + g.getEdgeCount() + ", k=" + k);
+
+        // the trail alone, without the reductions of the compact search
+        mvc.setKernelization(false);
+        mvc.setLowerBounds();
+        mvc.setComponentBranching(false);
+
+        for (String algo : ALGOS) {
+            for (boolean compact : new boolean[]{false, true}) {
+                mvc.setUseCompactGraph(compact);
+                // warm-up
+                run(mvc, algo, g, k);
+
+                long bytes = allocatedBytes();
+                long start = System.nanoTime();
+                for (int i = 0; i < runs; i++)
+                    run(mvc, algo, g, k);
+                long time = System.nanoTime() - start;
+                bytes = allocatedBytes() - bytes;
+
+                System.out.println(String.format("%-14s %-8s %10.2f ms/run %14d bytes/run %10.1f MB/s",
+                        algo, compact ? "trail" : "jung", time / 1e6 / runs, bytes / runs,
+                        bytes / 1e6 / (time / 1e9)));
+            }
+        }
+    }
+
+    private static boolean run(MVC<String, Integer> mvc, String algo, Graph<String, Integer> g, int k) {
+        if (algo.equals("DBS"))
+            return mvc.kVertexCoverDegreeBranchingStrategy(g, k);
+        if (algo.equals("BussGoldsmith"))
+            return mvc.kVertexCoverBussGoldsmith(g, k);
+        return mvc.kVertexCoverNiedermeier(g, k);
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
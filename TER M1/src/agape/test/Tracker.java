@@ -1,20 +1,30 @@
 package agape.test;
 
-import java.util.HashMap;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  *
  * @author V. Levorato
  * This class allows to follow an algorithm and memorizes how many times
  * the algorithm passes through a branch or an heuristic.
+ * The traces are LongAdder counters (or maxima), so that the tasks of a
+ * parallel search can update them concurrently.
  */
 public class Tracker {
 
 
-    HashMap<String,Integer> branchmap;
+    ConcurrentHashMap<String,LongAdder> branchmap;
+    ConcurrentHashMap<String,LongAccumulator> maxmap;
 
-    public Tracker() {  branchmap=new HashMap<String,Integer>(); }
+    public Tracker() {
+        branchmap=new ConcurrentHashMap<String,LongAdder>();
+        maxmap=new ConcurrentHashMap<String,LongAccumulator>();
+    }
 
     /**
      * Increase by one the "index" trace.
@@ -22,13 +32,50 @@ public class Tracker {
      */
     public void increase(String index)
     {
-        if(branchmap.get(index)!=null)
-        {
-             int v=branchmap.get(index);
-             branchmap.put(index, v+1);
-        }
-        else
-            branchmap.put(index, 1);
+        counter(index).increment();
+    }
+
+    /**
+     * Increase the "index" trace by a given amount.
+     * @param index point to survey.
+     * @param value amount to add.
+     */
+    public void add(String index, long value)
+    {
+        counter(index).add(value);
+    }
+
+    /**
+     * Keeps the maximum of the values given to the "index" trace.
+     * @param index point to survey.
+     * @param value value to compare with the current maximum.
+     */
+    public void max(String index, long value)
+    {
+        maximum(index).accumulate(value);
+    }
+
+    /**
+     * Gives the counter of a trace, so that an algorithm can look it up once
+     * and increase it without the cost of the map. Counters are thread-safe.
+     * @param index point to survey.
+     * @return the counter of the point.
+     */
+    public LongAdder counter(String index)
+    {
+        LongAdder c=branchmap.get(index);
+        return c!=null ? c : branchmap.computeIfAbsent(index, i -> new LongAdder());
+    }
+
+    /**
+     * Gives the maximum of a trace, like counter(index).
+     * @param index point to survey.
+     * @return the maximum of the point.
+     */
+    public LongAccumulator maximum(String index)
+    {
+        LongAccumulator m=maxmap.get(index);
+        return m!=null ? m : maxmap.computeIfAbsent(index, i -> new LongAccumulator(Long::max, 0));
     }
 
     /**
@@ -36,26 +83,54 @@ public class Tracker {
      * @param index point to survey.
      * @param value value to give to point.
      */
-    public void set(String index, int value)
+    public void set(String index, long value)
     {
-        branchmap.put(index, value);
+        LongAdder c=counter(index);
+        c.reset();
+        c.add(value);
     }
 
     /**
      * Return the amount of times the aimed method passed through a point.
      * @param index point to get.
-     * @return number of times the algorithm passed through the given point.
+     * @return number of times the algorithm passed through the given point (or its maximum), 0 if it has never been reached.
+     */
+    public long get(String index)
+    {
+        LongAdder c=branchmap.get(index);
+        if(c!=null)
+            return c.sum();
+        LongAccumulator m=maxmap.get(index);
+        return m!=null ? m.get() : 0;
+    }
+
+    /**
+     * @return the value of each trace, sorted by name.
+     */
+    public Map<String,Long> getCounts()
+    {
+        TreeMap<String,Long> counts=new TreeMap<String,Long>();
+        for(Entry<String,LongAdder> entry : branchmap.entrySet())
+            counts.put(entry.getKey(), entry.getValue().sum());
+        for(Entry<String,LongAccumulator> entry : maxmap.entrySet())
+            counts.put(entry.getKey(), entry.getValue().get());
+        return counts;
+    }
+
+    /**
+     * Sets all the traces to zero.
      */
-    public int get(String index)
+    public void reset()
     {
-        return branchmap.get(index);
+        branchmap.clear();
+        maxmap.clear();
     }
 
     @Override
     public String toString()
     {
         String res="";
-        for(Entry<String,Integer> entry : branchmap.entrySet())
+        for(Entry<String,Long> entry : getCounts().entrySet())
         {
             res+=entry.getKey()+":"+entry.getValue()+"\n";
         }
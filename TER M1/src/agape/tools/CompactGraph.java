@@ -0,0 +1,189 @@
+/*
+ * Copyright University of Orleans - ENSI de Bourges
+ * This software is governed by the CeCILL  license under French law and
+ * abiding by the rules of distribution of free software.  You can  use,
+ * modify and/ or redistribute the software under the terms of the CeCILL
+ * license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info".
+ */
+package agape.tools;
+
+import edu.uci.ics.jung.graph.Graph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable compact representation of an undirected graph. Vertices are
+ * numbered from 0 to n-1 and the adjacency is stored in CSR form (one offsets
+ * array and one array of sorted neighbor ids). A translation table keeps the
+ * link between the integer ids and the vertices of the original graph.
+ * Self-loops and parallel edges of the original graph are ignored.
+ * @param <V> Vertices type
+ */
+public class CompactGraph<V> {
+
+    private final ArrayList<V> vertices;
+    private final HashMap<V,Integer> ids;
+    private final int[] offsets;
+    private final int[] adjacency;
+    private final int edgeCount;
+
+    private CompactGraph(ArrayList<V> vertices, HashMap<V,Integer> ids, int[] offsets, int[] adjacency)
+    {
+        this.vertices=vertices;
+        this.ids=ids;
+        this.offsets=offsets;
+        this.adjacency=adjacency;
+        this.edgeCount=adjacency.length/2;
+    }
+
+    /**
+     * Builds the compact representation of an undirected graph.
+     * @param G graph
+     * @return the compact graph of G
+     */
+    public static<V,E> CompactGraph<V> fromGraph(Graph<V,E> G)
+    {
+        int n=G.getVertexCount();
+        ArrayList<V> vertices=new ArrayList<V>(G.getVertices());
+        HashMap<V,Integer> ids=new HashMap<V,Integer>(2*n);
+        for(int i=0;i<n;i++)
+            ids.put(vertices.get(i), i);
+
+        int[][] neighbors=new int[n][];
+        for(int i=0;i<n;i++)
+        {
+            Collection<V> N=G.getNeighbors(vertices.get(i));
+            int[] Ni=new int[N.size()];
+            int d=0;
+            for(V x : N)
+                Ni[d++]=ids.get(x);
+            neighbors[i]=Ni;
+        }
+        return build(vertices, ids, neighbors);
+    }
+
+    /**
+     * Builds a compact graph from neighbor lists of vertex ids.
+     * @param vertices vertices, the id of a vertex being its index in the list
+     * @param neighbors neighbors[i] contains the ids of the neighbors of vertex i,
+     * in any order (the arrays are sorted in place)
+     * @return the compact graph
+     */
+    public static<V> CompactGraph<V> fromNeighbors(List<V> vertices, int[][] neighbors)
+    {
+        int n=vertices.size();
+        ArrayList<V> list=new ArrayList<V>(vertices);
+        HashMap<V,Integer> ids=new HashMap<V,Integer>(2*n);
+        for(int i=0;i<n;i++)
+            ids.put(list.get(i), i);
+        return build(list, ids, neighbors);
+    }
+
+    private static<V> CompactGraph<V> build(ArrayList<V> vertices, HashMap<V,Integer> ids, int[][] neighbors)
+    {
+        int n=vertices.size();
+        int total=0;
+        for(int i=0;i<n;i++)
+        {
+            int[] Ni=neighbors[i];
+            Arrays.sort(Ni);
+            //removes self-loops and duplicates (parallel edges)
+            int u=0;
+            for(int p=0;p<Ni.length;p++)
+                if(Ni[p]!=i && (u==0 || Ni[u-1]!=Ni[p]))
+                    Ni[u++]=Ni[p];
+            neighbors[i]=u==Ni.length ? Ni : Arrays.copyOf(Ni, u);
+            total+=u;
+        }
+
+        int[] offsets=new int[n+1];
+        int[] adjacency=new int[total];
+        for(int i=0;i<n;i++)
+        {
+            offsets[i+1]=offsets[i]+neighbors[i].length;
+            System.arraycopy(neighbors[i], 0, adjacency, offsets[i], neighbors[i].length);
+        }
+
+        return new CompactGraph<V>(vertices, ids, offsets, adjacency);
+    }
+
+    /**
+     * @return number of vertices
+     */
+    public int getVertexCount() { return vertices.size(); }
+
+    /**
+     * @return number of edges
+     */
+    public int getEdgeCount() { return edgeCount; }
+
+    /**
+     * @param v vertex id
+     * @return degree of v
+     */
+    public int degree(int v) { return offsets[v+1]-offsets[v]; }
+
+    /**
+     * Returns the CSR offsets: neighbors of v are stored in the adjacency array
+     * between offsets[v] (included) and offsets[v+1] (excluded).
+     * The returned array must not be modified.
+     * @return offsets array (size n+1)
+     */
+    public int[] getOffsets() { return offsets; }
+
+    /**
+     * Returns the CSR adjacency array, neighbors of each vertex being sorted.
+     * The returned array must not be modified.
+     * @return adjacency array (size 2m)
+     */
+    public int[] getAdjacency() { return adjacency; }
+
+    /**
+     * Tests if an edge exists between vertices u and v (binary search in the
+     * neighborhood of u).
+     * @param u 1st vertex id
+     * @param v 2nd vertex id
+     * @return true if the edge u-v exists, false if not.
+     */
+    public boolean isEdge(int u, int v)
+    {
+        return Arrays.binarySearch(adjacency, offsets[u], offsets[u+1], v)>=0;
+    }
+
+    /**
+     * @param id vertex id
+     * @return the vertex of the original graph having this id
+     */
+    public V getVertex(int id) { return vertices.get(id); }
+
+    /**
+     * @param v vertex of the original graph
+     * @return the id of v, -1 if v is not in the graph
+     */
+    public int getId(V v)
+    {
+        Integer id=ids.get(v);
+        return id==null ? -1 : id;
+    }
+
+    /**
+     * Translates the first 'size' ids of an array into vertices of the original graph.
+     * @param S array of vertex ids
+     * @param size number of ids to translate
+     * @return the corresponding set of vertices
+     */
+    public Set<V> toVertexSet(int[] S, int size)
+    {
+        Set<V> R=new HashSet<V>();
+        for(int i=0;i<size;i++)
+            R.add(vertices.get(S[i]));
+        return R;
+    }
+
+}
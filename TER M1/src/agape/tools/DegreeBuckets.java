@@ -0,0 +1,173 @@
+/*
+ * Copyright University of Orleans - ENSI de Bourges
+ * This software is governed by the CeCILL  license under French law and
+ * abiding by the rules of distribution of free software.  You can  use,
+ * modify and/ or redistribute the software under the terms of the CeCILL
+ * license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info".
+ */
+package agape.tools;
+
+/**
+ * Index of vertex ids by degree: one doubly linked list per degree, stored in
+ * int arrays. Insertion, deletion and degree change of a vertex are O(1), as
+ * well as the queries "a vertex of degree d" and "number of vertices of
+ * degree d". The minimum and maximum degrees are maintained as bounds which
+ * are tightened lazily, which gives amortized O(1) queries when degrees only
+ * change by one (vertex and edge deletions and their undo).
+ */
+public class DegreeBuckets {
+
+    private final int[] head;  //first vertex of each degree, -1 if none
+    private final int[] next;
+    private final int[] prev;
+    private final int[] key;   //degree of each vertex, -1 if the vertex is not in the index
+    private final int[] count; //number of vertices of each degree
+    private int size;
+    private int maxKey;        //upper bound of the maximum degree
+    private int minKey;        //lower bound of the minimum degree
+
+    /**
+     * Builds an empty index.
+     * @param n number of vertex ids
+     * @param maxDegree maximum degree of a vertex
+     */
+    public DegreeBuckets(int n, int maxDegree)
+    {
+        head=new int[maxDegree+1];
+        count=new int[maxDegree+1];
+        next=new int[n];
+        prev=new int[n];
+        key=new int[n];
+        java.util.Arrays.fill(head, -1);
+        java.util.Arrays.fill(key, -1);
+        maxKey=0;
+        minKey=maxDegree;
+    }
+
+    /**
+     * Copy of an index.
+     * @param B index to copy
+     */
+    public DegreeBuckets(DegreeBuckets B)
+    {
+        head=B.head.clone();
+        count=B.count.clone();
+        next=B.next.clone();
+        prev=B.prev.clone();
+        key=B.key.clone();
+        size=B.size;
+        maxKey=B.maxKey;
+        minKey=B.minKey;
+    }
+
+    /**
+     * @return number of indexed vertices
+     */
+    public int size() { return size; }
+
+    /**
+     * @param v vertex id
+     * @return true if v is indexed
+     */
+    public boolean contains(int v) { return key[v]>=0; }
+
+    /**
+     * Indexes vertex v with degree d.
+     * @param v vertex id (not indexed)
+     * @param d degree
+     */
+    public void add(int v, int d)
+    {
+        key[v]=d;
+        prev[v]=-1;
+        next[v]=head[d];
+        if(head[d]>=0)
+            prev[head[d]]=v;
+        head[d]=v;
+        count[d]++;
+        size++;
+        if(d>maxKey) maxKey=d;
+        if(d<minKey) minKey=d;
+    }
+
+    /**
+     * Removes vertex v from the index.
+     * @param v vertex id (indexed)
+     */
+    public void remove(int v)
+    {
+        int d=key[v];
+        if(prev[v]>=0)
+            next[prev[v]]=next[v];
+        else
+            head[d]=next[v];
+        if(next[v]>=0)
+            prev[next[v]]=prev[v];
+        key[v]=-1;
+        count[d]--;
+        size--;
+    }
+
+    /**
+     * Changes the degree of an indexed vertex.
+     * @param v vertex id (indexed)
+     * @param d new degree
+     */
+    public void move(int v, int d)
+    {
+        remove(v);
+        add(v, d);
+    }
+
+    /**
+     * @param v vertex id
+     * @return degree of v, -1 if v is not indexed
+     */
+    public int getKey(int v) { return key[v]; }
+
+    /**
+     * @param d degree
+     * @return a vertex of degree d, -1 if there is none
+     */
+    public int first(int d)
+    {
+        return d<head.length ? head[d] : -1;
+    }
+
+    /**
+     * Iterates over the vertices having the same degree as v.
+     * @param v vertex id (indexed)
+     * @return next vertex of the same degree, -1 if v is the last one
+     */
+    public int next(int v) { return next[v]; }
+
+    /**
+     * @param d degree
+     * @return number of vertices of degree d
+     */
+    public int count(int d)
+    {
+        return d<count.length ? count[d] : 0;
+    }
+
+    /**
+     * @return the maximum degree, -1 if the index is empty
+     */
+    public int getMax()
+    {
+        if(size==0) return -1;
+        while(count[maxKey]==0) maxKey--;
+        return maxKey;
+    }
+
+    /**
+     * @return the minimum degree, -1 if the index is empty
+     */
+    public int getMin()
+    {
+        if(size==0) return -1;
+        while(count[minKey]==0) minKey++;
+        return minKey;
+    }
+}
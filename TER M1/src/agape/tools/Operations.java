@@ -24,6 +24,9 @@ import org.apache.commons.collections15.Factory;
 
 /**
  * This class provides a set of methods used in graph algorithms.
+ * Degree queries (getMinDegVertex, getDegVertex, isRegular...) scan all the
+ * vertices of the graph: algorithms calling them at each step should work on
+ * a ReversibleGraph, which indexes vertices by degree.
  * @author V. Levorato
  */
 public class Operations {
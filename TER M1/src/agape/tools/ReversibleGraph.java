@@ -0,0 +1,359 @@
+/*
+ * Copyright University of Orleans - ENSI de Bourges
+ * This software is governed by the CeCILL  license under French law and
+ * abiding by the rules of distribution of free software.  You can  use,
+ * modify and/ or redistribute the software under the terms of the CeCILL
+ * license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info".
+ */
+package agape.tools;
+
+import java.util.Arrays;
+
+/**
+ * Mutable view of a CompactGraph in which vertices and edges can be deleted
+ * and restored. Every deletion is recorded on a trail (a stack of int): a
+ * checkpoint is the current size of the trail and undo(checkpoint) restores
+ * the graph as it was, in O(changes) and without allocation.
+ * Remaining vertices are indexed by degree (DegreeBuckets), so that a vertex
+ * of a given degree, of minimum or of maximum degree is found in O(1).
+ * Typical use in a branching algorithm:
+ * <pre>
+ * int mark=g.mark();
+ * g.removeVertex(v);
+ * ... recursion ...
+ * g.undo(mark);
+ * </pre>
+ * Listeners are told of each deletion and restoration, so that a structure
+ * computed on the graph can be updated in O(changes) instead of being
+ * computed again.
+ */
+public class ReversibleGraph {
+
+    /**
+     * Receives the changes of a ReversibleGraph. A deletion is reported after
+     * it has been pushed on the trail (mark() includes it), a restoration
+     * after it has been popped (mark() is the position it had on the trail).
+     */
+    public interface Listener {
+        void vertexRemoved(int v);
+        void vertexRestored(int v);
+        void edgeRemoved(int u, int v);
+        void edgeRestored(int u, int v);
+    }
+
+    private final CompactGraph<?> graph;
+    private final int[] offsets;
+    private final int[] adjacency;
+
+    private final boolean[] removed;
+    private final boolean[] arcRemoved; //indexed as the adjacency array
+    private final int[] deg;
+    private final DegreeBuckets buckets;
+    private int vertexCount;
+    private int edgeCount;
+
+    //deleted vertex v is stored as v, deleted edge as ~(position of the arc in adjacency)
+    private int[] trail;
+    private int trailSize;
+
+    private Listener[] listeners=new Listener[0];
+
+    /**
+     * Builds a view of G in which no vertex is deleted.
+     * @param G compact graph
+     */
+    public ReversibleGraph(CompactGraph<?> G)
+    {
+        graph=G;
+        offsets=G.getOffsets();
+        adjacency=G.getAdjacency();
+        int n=G.getVertexCount();
+        removed=new boolean[n];
+        arcRemoved=new boolean[adjacency.length];
+        deg=new int[n];
+        int maxDegree=0;
+        for(int v=0;v<n;v++)
+        {
+            deg[v]=G.degree(v);
+            maxDegree=Math.max(maxDegree, deg[v]);
+        }
+        buckets=new DegreeBuckets(n, maxDegree);
+        for(int v=0;v<n;v++)
+            buckets.add(v, deg[v]);
+        vertexCount=n;
+        edgeCount=G.getEdgeCount();
+        trail=new int[Math.max(16, n)];
+    }
+
+    /**
+     * Copy of the current state of a view, sharing the underlying CompactGraph.
+     * The trail of the copy is empty, and it has no listener.
+     * @param R view to copy
+     */
+    public ReversibleGraph(ReversibleGraph R)
+    {
+        graph=R.graph;
+        offsets=R.offsets;
+        adjacency=R.adjacency;
+        removed=R.removed.clone();
+        arcRemoved=R.arcRemoved.clone();
+        deg=R.deg.clone();
+        buckets=new DegreeBuckets(R.buckets);
+        vertexCount=R.vertexCount;
+        edgeCount=R.edgeCount;
+        trail=new int[R.trail.length];
+    }
+
+    /**
+     * Adds a listener, told of the changes made from now on.
+     * @param l listener
+     */
+    public void addListener(Listener l)
+    {
+        listeners=Arrays.copyOf(listeners, listeners.length+1);
+        listeners[listeners.length-1]=l;
+    }
+
+    /**
+     * @return the underlying compact graph
+     */
+    public CompactGraph<?> getCompactGraph() { return graph; }
+
+    /**
+     * @return number of vertex ids (deleted or not)
+     */
+    public int size() { return removed.length; }
+
+    /**
+     * @return number of remaining vertices
+     */
+    public int getVertexCount() { return vertexCount; }
+
+    /**
+     * @return number of remaining edges
+     */
+    public int getEdgeCount() { return edgeCount; }
+
+    /**
+     * @param v vertex id
+     * @return true if v has been deleted
+     */
+    public boolean isRemoved(int v) { return removed[v]; }
+
+    /**
+     * @param v vertex id (not deleted)
+     * @return degree of v in the remaining graph
+     */
+    public int degree(int v) { return deg[v]; }
+
+    /**
+     * Neighbors of v are the vertices adjacency[i] for i between
+     * getOffsets()[v] and getOffsets()[v+1], such that isActive(i) holds.
+     * @return offsets of the underlying CSR representation
+     */
+    public int[] getOffsets() { return offsets; }
+
+    /**
+     * @return adjacency array of the underlying CSR representation
+     */
+    public int[] getAdjacency() { return adjacency; }
+
+    /**
+     * @param i position in the adjacency array
+     * @return true if the arc at position i is still in the graph
+     */
+    public boolean isActive(int i) { return !arcRemoved[i] && !removed[adjacency[i]]; }
+
+    /**
+     * Tests if the edge u-v exists in the remaining graph.
+     * @param u 1st vertex id
+     * @param v 2nd vertex id
+     * @return true if the edge u-v exists, false if not.
+     */
+    public boolean isEdge(int u, int v)
+    {
+        if(removed[u] || removed[v])
+            return false;
+        int i=Arrays.binarySearch(adjacency, offsets[u], offsets[u+1], v);
+        return i>=0 && !arcRemoved[i];
+    }
+
+    /**
+     * @param v vertex id (not deleted)
+     * @return a neighbor of v, -1 if v is isolated
+     */
+    public int firstNeighbor(int v)
+    {
+        for(int i=offsets[v];i<offsets[v+1];i++)
+            if(isActive(i))
+                return adjacency[i];
+        return -1;
+    }
+
+    /**
+     * @param d degree
+     * @return a remaining vertex of degree d, -1 if there is none
+     */
+    public int getDegVertex(int d) { return buckets.first(d); }
+
+    /**
+     * @param d degree
+     * @return number of remaining vertices of degree d
+     */
+    public int getDegVertexCount(int d) { return buckets.count(d); }
+
+    /**
+     * Iterates over the remaining vertices of the same degree as v.
+     * @param v vertex id (not deleted)
+     * @return another vertex of the same degree, -1 if there is no more
+     */
+    public int nextDegVertex(int v) { return buckets.next(v); }
+
+    /**
+     * @return maximum degree of the remaining graph, -1 if it is empty
+     */
+    public int getMaxDeg() { return buckets.getMax(); }
+
+    /**
+     * @return minimum degree of the remaining graph, -1 if it is empty
+     */
+    public int getMinDeg() { return buckets.getMin(); }
+
+    /**
+     * @return a vertex with max degree, -1 if the graph is empty
+     */
+    public int getMaxDegVertex()
+    {
+        int d=buckets.getMax();
+        return d<0 ? -1 : buckets.first(d);
+    }
+
+    /**
+     * @return a vertex with min degree, -1 if the graph is empty
+     */
+    public int getMinDegVertex()
+    {
+        int d=buckets.getMin();
+        return d<0 ? -1 : buckets.first(d);
+    }
+
+    /**
+     * @return true if all the remaining vertices have the same degree
+     */
+    public boolean isRegular()
+    {
+        int d=buckets.getMax();
+        return d<0 || buckets.count(d)==vertexCount;
+    }
+
+    /**
+     * @return the current checkpoint of the trail
+     */
+    public int mark() { return trailSize; }
+
+    /**
+     * Undoes all the deletions made since the given checkpoint.
+     * @param mark checkpoint returned by mark()
+     */
+    public void undo(int mark)
+    {
+        while(trailSize>mark)
+        {
+            int t=trail[--trailSize];
+            if(t>=0)
+            {
+                restoreVertex(t);
+                for(Listener l : listeners)
+                    l.vertexRestored(t);
+            }
+            else
+                restoreArc(~t);
+        }
+    }
+
+    /**
+     * Deletes vertex v and its incident edges.
+     * @param v vertex id (not deleted)
+     */
+    public void removeVertex(int v)
+    {
+        removed[v]=true;
+        buckets.remove(v);
+        vertexCount--;
+        edgeCount-=deg[v];
+        for(int i=offsets[v];i<offsets[v+1];i++)
+            if(isActive(i))
+            {
+                int u=adjacency[i];
+                buckets.move(u, --deg[u]);
+            }
+        push(v);
+        for(Listener l : listeners)
+            l.vertexRemoved(v);
+    }
+
+    /**
+     * Deletes the edge u-v.
+     * @param u 1st vertex id
+     * @param v 2nd vertex id
+     * @return false if there is no such edge in the remaining graph
+     */
+    public boolean removeEdge(int u, int v)
+    {
+        if(removed[u] || removed[v])
+            return false;
+        int i=Arrays.binarySearch(adjacency, offsets[u], offsets[u+1], v);
+        if(i<0 || arcRemoved[i])
+            return false;
+        int j=Arrays.binarySearch(adjacency, offsets[v], offsets[v+1], u);
+        arcRemoved[i]=true;
+        arcRemoved[j]=true;
+        buckets.move(u, --deg[u]);
+        buckets.move(v, --deg[v]);
+        edgeCount--;
+        push(~i);
+        for(Listener l : listeners)
+            l.edgeRemoved(u, v);
+        return true;
+    }
+
+    private void restoreVertex(int v)
+    {
+        removed[v]=false;
+        buckets.add(v, deg[v]);
+        vertexCount++;
+        edgeCount+=deg[v];
+        for(int i=offsets[v];i<offsets[v+1];i++)
+            if(isActive(i))
+            {
+                int u=adjacency[i];
+                buckets.move(u, ++deg[u]);
+            }
+    }
+
+    private void restoreArc(int i)
+    {
+        int v=adjacency[i];
+        int u=Arrays.binarySearch(offsets, i);
+        if(u<0) u=-u-2;
+        //skips vertices without neighbors sharing the same offset
+        while(offsets[u+1]<=i) u++;
+        int j=Arrays.binarySearch(adjacency, offsets[v], offsets[v+1], u);
+        arcRemoved[i]=false;
+        arcRemoved[j]=false;
+        buckets.move(u, ++deg[u]);
+        buckets.move(v, ++deg[v]);
+        edgeCount++;
+        for(Listener l : listeners)
+            l.edgeRestored(u, v);
+    }
+
+    private void push(int t)
+    {
+        if(trailSize==trail.length)
+            trail=Arrays.copyOf(trail, 2*trail.length);
+        trail[trailSize++]=t;
+    }
+
+}